@@ -1,7 +1,11 @@
 import graph.*;
 import graph.scc.KosarajuSCC;
+import graph.scc.SCCResult;
 import graph.topo.TopologicalSort;
+import graph.dagsp.CriticalPathMethod;
+import graph.dagsp.DAGQueryPlan;
 import graph.dagsp.DAGShortestPath;
+import graph.reach.ReachabilityIndex;
 import java.io.IOException;
 import java.util.*;
 
@@ -12,8 +16,9 @@ import java.util.*;
 public class Main {
     public static void main(String[] args) {
         if (args.length == 0) {
-            System.out.println("Usage: java Main <json-file>");
+            System.out.println("Usage: java Main <json-file | bin-file | edge-list-file [source]>");
             System.out.println("Example: java Main data/small1.json");
+            System.out.println("Binary files are produced by: java graph.BinaryGraphFormat <json-file>");
             return;
         }
 
@@ -22,17 +27,30 @@ public class Main {
             System.out.println("=== Smart City Scheduling Analysis ===\n");
             System.out.println("Loading graph from: " + filename + "\n");
 
-            Graph graph = GraphLoader.loadFromJson(filename);
-            int source = GraphLoader.getSourceFromJson(filename);
+            Graph graph;
+            int source;
+            if (filename.endsWith(".bin")) {
+                MappedGraph mapped = BinaryGraphFormat.load(filename);
+                graph = mapped;
+                source = mapped.getSource();
+            } else if (filename.endsWith(".json")) {
+                GraphLoader.GraphData data = GraphLoader.load(filename);
+                graph = data.graph;
+                source = data.source;
+            } else {
+                // Plain or DIMACS edge list; the source vertex is an optional second argument
+                graph = EdgeListLoader.load(filename);
+                source = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+            }
 
             // 1. Find SCCs
             System.out.println("--- Step 1: Strongly Connected Components ---");
             KosarajuSCC scc = new KosarajuSCC(graph);
-            List<List<Integer>> components = scc.findSCCs();
+            SCCResult components = scc.findComponents();
             
-            System.out.println("Found " + components.size() + " strongly connected components:");
-            for (int i = 0; i < components.size(); i++) {
-                System.out.println("  Component " + i + ": " + components.get(i) + " (size: " + components.get(i).size() + ")");
+            System.out.println("Found " + components.getComponentCount() + " strongly connected components:");
+            for (int i = 0; i < components.getComponentCount(); i++) {
+                System.out.println("  Component " + i + ": " + components.componentAsList(i) + " (size: " + components.componentSize(i) + ")");
             }
             System.out.println("Metrics: " + scc.getMetrics() + "\n");
 
@@ -51,9 +69,11 @@ public class Main {
             
             // Derived order of original tasks after SCC compression
             System.out.println("\nDerived order of original tasks:");
-            List<Integer> originalOrder = new ArrayList<>();
+            List<Integer> originalOrder = new ArrayList<>(graph.getN());
             for (int compId : topoOrder) {
-                originalOrder.addAll(components.get(compId));
+                for (int i = components.memberStart(compId); i < components.memberEnd(compId); i++) {
+                    originalOrder.add(components.member(i));
+                }
             }
             System.out.println("  " + originalOrder);
             System.out.println();
@@ -61,7 +81,9 @@ public class Main {
             // 4. Shortest paths in DAG
             System.out.println("--- Step 4: Shortest Paths in DAG ---");
             int sourceComponent = scc.getComponentId(source);
-            DAGShortestPath sp = new DAGShortestPath(dag);
+            // The DAG is sorted once; both path queries reuse the compiled plan
+            DAGQueryPlan plan = DAGQueryPlan.compile(dag, topoOrder);
+            DAGShortestPath sp = new DAGShortestPath(plan);
             int[] shortest = sp.shortestPaths(sourceComponent);
             
             System.out.println("Shortest distances from component " + sourceComponent + " (source vertex " + source + "):");
@@ -76,12 +98,39 @@ public class Main {
 
             // 5. Longest path (critical path)
             System.out.println("--- Step 5: Critical Path (Longest Path) ---");
-            DAGShortestPath lp = new DAGShortestPath(dag);
+            DAGShortestPath lp = new DAGShortestPath(plan);
             DAGShortestPath.CriticalPathResult critical = lp.findCriticalPath(sourceComponent);
             System.out.println("Critical path: " + critical.path);
             System.out.println("Critical path length: " + critical.length);
             System.out.println("Metrics: " + lp.getMetrics() + "\n");
 
+            // 6. Earliest/latest times and slack for the whole schedule
+            System.out.println("--- Step 6: Critical Path Method (Slack) ---");
+            CriticalPathMethod cpm = new CriticalPathMethod(plan);
+            CriticalPathMethod.Schedule schedule = cpm.compute();
+            System.out.println("Project length: " + schedule.projectLength);
+            System.out.println("Critical components: " + Arrays.toString(schedule.criticalVertices));
+            for (int i = 0; i < Math.min(dag.getN(), 10); i++) {
+                System.out.println("  Component " + i + ": ES=" + schedule.earliestStart[i]
+                        + ", LS=" + schedule.latestStart[i] + ", slack=" + schedule.totalSlack[i]
+                        + ", free=" + schedule.freeSlack[i]);
+            }
+            System.out.println("Metrics: " + cpm.getMetrics() + "\n");
+
+            // 7. Reachability between tasks
+            System.out.println("--- Step 7: Reachability Index ---");
+            ReachabilityIndex reach = new ReachabilityIndex(condensation);
+            int reachable = 0;
+            for (int v = 0; v < graph.getN(); v++) {
+                if (reach.reaches(source, v)) {
+                    reachable++;
+                }
+            }
+            System.out.println("Index: " + (reach.isDense() ? "transitive closure" : "interval labels")
+                    + ", " + reach.getSizeBytes() + " bytes");
+            System.out.println("Tasks reachable from source " + source + ": " + reachable + " of " + graph.getN());
+            System.out.println("Metrics: " + reach.getMetrics() + "\n");
+
             // Reconstruct one optimal path
             if (shortest.length > 0) {
                 System.out.println("--- Sample Path Reconstruction ---");
@@ -0,0 +1,263 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary graph file format that can be memory-mapped.
+ *
+ * Layout (little-endian 32-bit ints):
+ * <pre>
+ *   header:  magic, version, n, m, source, weightModel, flags, reserved
+ *   offsets: n + 1 ints
+ *   targets: m ints
+ *   weights: m ints
+ *   node weights: n ints, present if flags has {@link #FLAG_NODE_WEIGHTS}
+ * </pre>
+ * The first three arrays are the CSR arrays of {@link Graph}, so loading is just mapping the file.
+ */
+public class BinaryGraphFormat {
+    public static final int MAGIC = 0x47525343; // "CSRG" in little-endian byte order
+    public static final int VERSION = 1;
+    public static final int HEADER_INTS = 8;
+    public static final int WEIGHT_MODEL_EDGE = 0;
+    public static final int WEIGHT_MODEL_NODE = 1;
+    public static final int FLAG_NODE_WEIGHTS = 1;
+
+    private static final int WRITE_BUFFER_INTS = 1 << 16;
+    // Arrays are mapped in windows of 2^28 ints (1 GB), below the 2 GB limit of one mapping
+    private static final int WINDOW_SHIFT = 28;
+
+    /**
+     * Writes a graph in binary format.
+     *
+     * @param graph graph to write
+     * @param source source vertex for path algorithms
+     * @param weightModel weight model ("edge" or "node")
+     * @param filename output file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Graph graph, int source, String weightModel, String filename) throws IOException {
+        int n = graph.getN();
+        int m = graph.getM();
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntWriter out = new IntWriter(channel);
+            out.put(MAGIC);
+            out.put(VERSION);
+            out.put(n);
+            out.put(m);
+            out.put(source);
+            out.put(encodeWeightModel(weightModel));
+            out.put(graph.hasNodeWeights() ? FLAG_NODE_WEIGHTS : 0);
+            out.put(0);
+
+            for (int u = 0; u < n; u++) {
+                out.put(graph.edgeStart(u));
+            }
+            out.put(m);
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    out.put(graph.edgeTarget(e));
+                }
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    out.put(graph.edgeWeight(e));
+                }
+            }
+            if (graph.hasNodeWeights()) {
+                for (int v = 0; v < n; v++) {
+                    out.put(graph.getNodeWeight(v));
+                }
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Converts a JSON graph file (see {@link GraphLoader}) to binary format.
+     */
+    public static void convertJson(String jsonFile, String binaryFile) throws IOException {
+        GraphLoader.GraphData data = GraphLoader.load(jsonFile);
+        write(data.graph, data.source, data.weightModel, binaryFile);
+    }
+
+    /**
+     * Memory-maps a binary graph file. Each array is mapped in windows of at most 1 GB, so
+     * arrays larger than a single 2 GB mapping are supported. The header and the offsets are
+     * validated; edge targets are not, so that loading does not read the edge arrays.
+     *
+     * @param filename binary graph file
+     * @return read-only graph backed by the mapped file
+     * @throws IOException if the file cannot be read, is not in binary graph format, or has an
+     *         out-of-range source or inconsistent offsets
+     */
+    public static MappedGraph load(String filename) throws IOException {
+        return load(filename, WINDOW_SHIFT);
+    }
+
+    static MappedGraph load(String filename, int windowShift) throws IOException {
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Truncated header in " + filename);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a binary graph file: " + filename);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + filename);
+            }
+            int n = header.getInt();
+            int m = header.getInt();
+            int source = header.getInt();
+            String weightModel = decodeWeightModel(header.getInt());
+            int flags = header.getInt();
+            if (n < 0 || m < 0) {
+                throw new IOException("Invalid header in " + filename + ": n=" + n + ", m=" + m);
+            }
+            // An empty graph has no vertices, so it may only name vertex 0
+            if (source < 0 || source >= Math.max(n, 1)) {
+                throw new IOException("Source " + source + " out of range for " + n + " vertices in " + filename);
+            }
+
+            long offsetsPos = HEADER_INTS * 4L;
+            long targetsPos = offsetsPos + (n + 1L) * 4;
+            long weightsPos = targetsPos + m * 4L;
+            long nodeWeightsPos = weightsPos + m * 4L;
+            boolean hasNodeWeights = (flags & FLAG_NODE_WEIGHTS) != 0;
+            long expectedSize = nodeWeightsPos + (hasNodeWeights ? n * 4L : 0);
+            if (channel.size() < expectedSize) {
+                throw new IOException("Truncated binary graph file: " + filename);
+            }
+
+            // Mappings stay valid after the channel is closed
+            IntBuffer[] offsets = map(channel, offsetsPos, n + 1L, windowShift);
+            checkOffsets(offsets, n, m, filename);
+            IntBuffer[] targets = map(channel, targetsPos, m, windowShift);
+            IntBuffer[] weights = map(channel, weightsPos, m, windowShift);
+            MappedGraph graph = new MappedGraph(n, m, source, weightModel, offsets, targets, weights, windowShift);
+            if (hasNodeWeights) {
+                // One int per vertex; small enough to keep on the heap
+                int[] nodeWeights = new int[n];
+                int copied = 0;
+                for (IntBuffer window : map(channel, nodeWeightsPos, n, windowShift)) {
+                    int count = window.remaining();
+                    window.get(nodeWeights, copied, count);
+                    copied += count;
+                }
+                graph.setNodeWeights(nodeWeights);
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * Maps ints consecutive ints as windows of 2^windowShift ints; the last window may be shorter.
+     */
+    private static IntBuffer[] map(FileChannel channel, long position, long ints, int windowShift) throws IOException {
+        long windowInts = 1L << windowShift;
+        IntBuffer[] windows = new IntBuffer[(int) Math.max(1, (ints + windowInts - 1) >>> windowShift)];
+        for (int i = 0; i < windows.length; i++) {
+            long start = i * windowInts;
+            long count = Math.min(windowInts, ints - start);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position + start * 4, count * 4);
+            windows[i] = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return windows;
+    }
+
+    /**
+     * Checks that the offsets start at 0, never decrease and end at m, so every edge range
+     * lies inside the edge arrays.
+     */
+    private static void checkOffsets(IntBuffer[] offsets, int n, int m, String filename) throws IOException {
+        int previous = 0;
+        int u = 0;
+        for (IntBuffer window : offsets) {
+            for (int i = 0, count = window.limit(); i < count; i++, u++) {
+                int offset = window.get(i);
+                if (u == 0 ? offset != 0 : offset < previous) {
+                    throw new IOException("Invalid offset " + offset + " for vertex " + u + " in " + filename);
+                }
+                previous = offset;
+            }
+        }
+        if (previous != m) {
+            throw new IOException("Offsets end at " + previous + " instead of m=" + m + " in " + filename);
+        }
+    }
+
+    private static int encodeWeightModel(String weightModel) {
+        return "node".equals(weightModel) ? WEIGHT_MODEL_NODE : WEIGHT_MODEL_EDGE;
+    }
+
+    private static String decodeWeightModel(int code) {
+        return code == WEIGHT_MODEL_NODE ? "node" : "edge";
+    }
+
+    /**
+     * Buffers ints and writes them to a channel in large blocks.
+     */
+    private static class IntWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+
+        IntWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Converts JSON graph files to binary format.
+     * Usage: BinaryGraphFormat &lt;input.json&gt; [output.bin] ...
+     * With a single argument per file the output name replaces ".json" with ".bin".
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java graph.BinaryGraphFormat <input.json> [output.bin]");
+            System.out.println("       java graph.BinaryGraphFormat data/*.json");
+            return;
+        }
+        if (args.length == 2 && !args[1].endsWith(".json")) {
+            convertJson(args[0], args[1]);
+            System.out.println("Converted " + args[0] + " -> " + args[1]);
+            return;
+        }
+        for (String input : args) {
+            String output = input.endsWith(".json")
+                    ? input.substring(0, input.length() - ".json".length()) + ".bin"
+                    : input + ".bin";
+            convertJson(input, output);
+            System.out.println("Converted " + input + " -> " + output);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package graph;
+
+/**
+ * Metrics that record operation counters and execution time.
+ */
+public class CountingMetrics implements Metrics {
+    private long dfsVisits = 0;
+    private long edgesTraversed = 0;
+    private long queuePops = 0;
+    private long queuePushes = 0;
+    private long relaxations = 0;
+    private long cacheHits = 0;
+    private long cacheMisses = 0;
+    private long startTime = 0;
+    private long endTime = 0;
+
+    @Override
+    public void start() {
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void stop() {
+        endTime = System.nanoTime();
+    }
+
+    @Override
+    public long getTimeNanos() {
+        return endTime - startTime;
+    }
+
+    @Override
+    public double getTimeMillis() {
+        return (endTime - startTime) / 1_000_000.0;
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+        dfsVisits++;
+    }
+
+    @Override
+    public void incrementEdgesTraversed() {
+        edgesTraversed++;
+    }
+
+    @Override
+    public void incrementQueuePops() {
+        queuePops++;
+    }
+
+    @Override
+    public void incrementQueuePushes() {
+        queuePushes++;
+    }
+
+    @Override
+    public void incrementRelaxations() {
+        relaxations++;
+    }
+
+    @Override
+    public void incrementCacheHits() {
+        cacheHits++;
+    }
+
+    @Override
+    public void incrementCacheMisses() {
+        cacheMisses++;
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+        dfsVisits += count;
+    }
+
+    @Override
+    public void addEdgesTraversed(long count) {
+        edgesTraversed += count;
+    }
+
+    @Override
+    public void addQueuePops(long count) {
+        queuePops += count;
+    }
+
+    @Override
+    public void addQueuePushes(long count) {
+        queuePushes += count;
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+        relaxations += count;
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return dfsVisits;
+    }
+
+    @Override
+    public long getEdgesTraversed() {
+        return edgesTraversed;
+    }
+
+    @Override
+    public long getQueuePops() {
+        return queuePops;
+    }
+
+    @Override
+    public long getQueuePushes() {
+        return queuePushes;
+    }
+
+    @Override
+    public long getRelaxations() {
+        return relaxations;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    @Override
+    public void reset() {
+        dfsVisits = 0;
+        edgesTraversed = 0;
+        queuePops = 0;
+        queuePushes = 0;
+        relaxations = 0;
+        cacheHits = 0;
+        cacheMisses = 0;
+        startTime = 0;
+        endTime = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Metrics{time=%.4f ms, dfsVisits=%d, edgesTraversed=%d, queuePops=%d, queuePushes=%d, relaxations=%d, cacheHits=%d, cacheMisses=%d}",
+            getTimeMillis(), dfsVisits, edgesTraversed, queuePops, queuePushes, relaxations, cacheHits, cacheMisses
+        );
+    }
+}
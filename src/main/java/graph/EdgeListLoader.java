@@ -0,0 +1,328 @@
+package graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads graphs from plain-text edge lists, parsing the file in parallel.
+ *
+ * Supported line formats (may be mixed in one file):
+ * <ul>
+ *   <li>{@code u v [w]} - 0-based edge, weight defaults to 1</li>
+ *   <li>{@code a u v w} - DIMACS arc, 1-based vertices</li>
+ *   <li>{@code p <kind> n m} - DIMACS problem line, fixes the vertex count</li>
+ *   <li>lines starting with {@code c}, {@code #} or {@code %} are comments</li>
+ * </ul>
+ * Without a problem line the vertex count is the largest vertex ID plus one.
+ *
+ * The file is split into line-aligned byte ranges that are memory-mapped and parsed
+ * on a fork-join pool; the per-chunk edge arrays are then merged into CSR form with a
+ * count-then-fill pass that keeps file order.
+ */
+public class EdgeListLoader {
+    public static final long DEFAULT_CHUNK_SIZE = 32L << 20;
+
+    /**
+     * Loads an edge list using the common fork-join pool.
+     *
+     * @param filename path to the edge list
+     * @return loaded Graph object
+     * @throws IOException if the file cannot be read or contains malformed lines
+     */
+    public static Graph load(String filename) throws IOException {
+        return load(filename, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Loads an edge list on the given pool, splitting the file into chunks of about chunkSize bytes.
+     */
+    public static Graph load(String filename, ForkJoinPool pool, long chunkSize) throws IOException {
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk size must be in (0, 2^31): " + chunkSize);
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel, chunkSize);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            try {
+                pool.invoke(new ParseTask(channel, bounds, chunks, 0, chunks.length));
+            } catch (UncheckedIOException e) {
+                throw new IOException(filename + ": " + e.getCause().getMessage(), e.getCause());
+            }
+            return merge(chunks, filename);
+        }
+    }
+
+    /**
+     * Computes chunk boundaries; every boundary except the last is the start of a line.
+     */
+    private static long[] splitAtLines(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[(int) (size / chunkSize) + 2];
+        int count = 1;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = 0;
+        while (position < size) {
+            long next = Math.min(size, position + chunkSize);
+            // Move the boundary just past the next newline
+            while (next < size) {
+                probe.clear();
+                int read = channel.read(probe, next - 1);
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    next = next + newline;
+                    break;
+                }
+                next = Math.min(size, next + read);
+            }
+            bounds[count++] = next;
+            position = next;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Builds the CSR graph from parsed chunks: count out-degrees, prefix-sum, then fill.
+     */
+    private static Graph merge(Chunk[] chunks, String filename) throws IOException {
+        int declaredN = -1;
+        int maxVertex = -1;
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            declaredN = Math.max(declaredN, chunk.declaredN);
+            maxVertex = Math.max(maxVertex, chunk.maxVertex);
+            total += chunk.m;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IOException(filename + ": too many edges (" + total + ")");
+        }
+        int n = declaredN >= 0 ? declaredN : maxVertex + 1;
+        if (maxVertex >= n) {
+            throw new IOException(filename + ": vertex " + maxVertex + " exceeds declared count " + n);
+        }
+
+        int[] offsets = new int[n + 1];
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.m; i++) {
+                offsets[chunk.from[i] + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int m = (int) total;
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.m; i++) {
+                int pos = cursor[chunk.from[i]]++;
+                targets[pos] = chunk.to[i];
+                weights[pos] = chunk.weight[i];
+            }
+        }
+        return new Graph(n, offsets, targets, weights);
+    }
+
+    /**
+     * Parses a range of chunks, splitting in half until a single chunk remains.
+     */
+    private static class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        ParseTask(FileChannel channel, long[] bounds, Chunk[] chunks, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(channel, bounds, chunks, from, mid),
+                          new ParseTask(channel, bounds, chunks, mid, to));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            long start = bounds[from];
+            long length = bounds[from + 1] - start;
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                Chunk chunk = new Chunk(start, buffer);
+                chunk.parse();
+                chunks[from] = chunk;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Edges parsed from one byte range, with a hand-rolled integer parser.
+     */
+    private static class Chunk {
+        private final long base;
+        private final ByteBuffer buffer;
+        private final int limit;
+        private int pos = 0;
+
+        int[] from;
+        int[] to;
+        int[] weight;
+        int m = 0;
+        int maxVertex = -1;
+        int declaredN = -1;
+
+        Chunk(long base, ByteBuffer buffer) {
+            this.base = base;
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+            int capacity = Math.max(16, limit / 8);
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new int[capacity];
+        }
+
+        void parse() throws IOException {
+            while (pos < limit) {
+                skipBlanks();
+                if (pos >= limit) {
+                    break;
+                }
+                byte c = buffer.get(pos);
+                if (c == '\n') {
+                    pos++;
+                } else if (c == '#' || c == '%' || c == 'c') {
+                    skipLine();
+                } else if (c == 'p') {
+                    pos++;
+                    skipBlanks();
+                    skipWord();
+                    declaredN = parseInt();
+                    skipLine();
+                } else if (c == 'a') {
+                    pos++;
+                    int u = parseInt() - 1;
+                    int v = parseInt() - 1;
+                    int w = parseInt();
+                    add(u, v, w);
+                    skipLine();
+                } else {
+                    int u = parseInt();
+                    int v = parseInt();
+                    skipBlanks();
+                    int w = pos < limit && isNumberStart(buffer.get(pos)) ? parseInt() : 1;
+                    add(u, v, w);
+                    skipLine();
+                }
+            }
+        }
+
+        private void add(int u, int v, int w) throws IOException {
+            if (u < 0 || v < 0) {
+                throw error("negative vertex ID");
+            }
+            if (m == from.length) {
+                int capacity = from.length * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[m] = u;
+            to[m] = v;
+            weight[m] = w;
+            m++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+        }
+
+        private int parseInt() throws IOException {
+            skipBlanks();
+            if (pos >= limit || !isNumberStart(buffer.get(pos))) {
+                throw error("expected integer");
+            }
+            boolean negative = false;
+            if (buffer.get(pos) == '-') {
+                negative = true;
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < limit) {
+                int d = buffer.get(pos) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                value = value * 10 + d;
+                if (value > Integer.MAX_VALUE) {
+                    throw error("integer overflow");
+                }
+                digits++;
+                pos++;
+            }
+            if (digits == 0) {
+                throw error("expected integer");
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        private static boolean isNumberStart(byte c) {
+            return c == '-' || (c >= '0' && c <= '9');
+        }
+
+        private void skipBlanks() {
+            while (pos < limit) {
+                byte c = buffer.get(pos);
+                if (c != ' ' && c != '\t' && c != '\r') {
+                    break;
+                }
+                pos++;
+            }
+        }
+
+        private void skipWord() {
+            while (pos < limit) {
+                byte c = buffer.get(pos);
+                if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                    break;
+                }
+                pos++;
+            }
+        }
+
+        private void skipLine() {
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+
+        private IOException error(String message) {
+            return new IOException("Malformed edge list at byte " + (base + pos) + ": " + message);
+        }
+    }
+}
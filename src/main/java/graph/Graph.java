@@ -3,13 +3,36 @@ package graph;
 import java.util.*;
 
 /**
- * Represents a directed graph with edge weights.
+ * Represents a directed graph with edge weights and, for the "node" weight model,
+ * optional per-vertex weights (task durations).
+ * Edges are stored in compressed sparse row (CSR) form: the out-edges of vertex u
+ * occupy the index range [edgeStart(u), edgeEnd(u)) of the primitive target/weight arrays.
+ * Edges added with {@link #addEdge} are buffered and merged into the CSR arrays on the next read.
  */
 public class Graph {
     private final int n;  // number of vertices
-    private final List<List<Edge>> adjList;
     private final boolean weighted;
 
+    // CSR arrays: offsets has n + 1 entries, targets/weights have one entry per edge
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+
+    // Edges added since the last compaction, in insertion order
+    private int[] pendingFrom = new int[0];
+    private int[] pendingTo = new int[0];
+    private int[] pendingWeight = new int[0];
+    private int pendingCount = 0;
+
+    // Lazily built in-edge index, discarded whenever an edge is added
+    private volatile ReverseIndex reverse;
+
+    // Incremented on every modification, so derived structures can detect staleness
+    private long version = 0;
+
+    // Per-vertex weights of the "node" weight model, null under the "edge" model
+    private int[] nodeWeights;
+
     /**
      * Represents a weighted edge.
      */
@@ -27,11 +50,17 @@ public class Graph {
      * Constructs a graph with n vertices.
      */
     public Graph(int n) {
+        this(n, new int[n + 1], new int[0], new int[0]);
+    }
+
+    /**
+     * Constructs a graph directly from CSR arrays (used by {@link Builder}).
+     */
+    protected Graph(int n, int[] offsets, int[] targets, int[] weights) {
         this.n = n;
-        this.adjList = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            adjList.add(new ArrayList<>());
-        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
         this.weighted = true;
     }
 
@@ -39,14 +68,207 @@ public class Graph {
      * Adds a directed edge from u to v with weight w.
      */
     public void addEdge(int u, int v, int w) {
-        adjList.get(u).add(new Edge(v, w));
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + n + " vertices");
+        }
+        if (pendingCount == pendingFrom.length) {
+            int capacity = Math.max(8, pendingCount * 2);
+            pendingFrom = Arrays.copyOf(pendingFrom, capacity);
+            pendingTo = Arrays.copyOf(pendingTo, capacity);
+            pendingWeight = Arrays.copyOf(pendingWeight, capacity);
+        }
+        pendingFrom[pendingCount] = u;
+        pendingTo[pendingCount] = v;
+        pendingWeight[pendingCount] = w;
+        pendingCount++;
+        reverse = null;
+        version++;
+    }
+
+    /**
+     * Removes one edge from u to v, the first one in u's out-edge order.
+     * Rewrites the CSR arrays, so it costs O(n + m); for frequent changes keep a
+     * dynamic structure such as {@code IncrementalSCC} instead.
+     *
+     * @return true if an edge was removed
+     */
+    public boolean removeEdge(int u, int v) {
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + n + " vertices");
+        }
+        compact();
+        int m = offsets[n];
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (targets[e] != v) {
+                continue;
+            }
+            int[] newTargets = new int[m - 1];
+            int[] newWeights = new int[m - 1];
+            System.arraycopy(targets, 0, newTargets, 0, e);
+            System.arraycopy(targets, e + 1, newTargets, e, m - 1 - e);
+            System.arraycopy(weights, 0, newWeights, 0, e);
+            System.arraycopy(weights, e + 1, newWeights, e, m - 1 - e);
+            targets = newTargets;
+            weights = newWeights;
+            for (int k = u + 1; k <= n; k++) {
+                offsets[k]--;
+            }
+            reverse = null;
+            version++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Changes the weight of one edge from u to v, the first one in u's out-edge order.
+     * The edge layout is unchanged, so this is O(out-degree of u).
+     *
+     * @return true if such an edge exists
+     */
+    public boolean setEdgeWeight(int u, int v, int w) {
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + n + " vertices");
+        }
+        compact();
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (targets[e] == v) {
+                weights[e] = w;
+                version++;
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Gets the adjacency list for vertex u.
+     * Allocates one Edge per out-edge; hot loops should use {@link #edgeStart}/{@link #edgeEnd} instead.
      */
     public List<Edge> getAdjacent(int u) {
-        return adjList.get(u);
+        int start = edgeStart(u);
+        int end = edgeEnd(u);
+        List<Edge> adjacent = new ArrayList<>(end - start);
+        for (int e = start; e < end; e++) {
+            adjacent.add(new Edge(edgeTarget(e), edgeWeight(e)));
+        }
+        return adjacent;
+    }
+
+    /**
+     * Gets the index of the first out-edge of vertex u.
+     */
+    public int edgeStart(int u) {
+        compact();
+        return offsets[u];
+    }
+
+    /**
+     * Gets the index one past the last out-edge of vertex u.
+     */
+    public int edgeEnd(int u) {
+        compact();
+        return offsets[u + 1];
+    }
+
+    /**
+     * Gets the target vertex of edge e.
+     */
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Gets the weight of edge e.
+     */
+    public int edgeWeight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Gets the number of out-edges of vertex u.
+     */
+    public int outDegree(int u) {
+        return edgeEnd(u) - edgeStart(u);
+    }
+
+    /**
+     * Gets the index of the first in-edge of vertex v in the reverse index.
+     */
+    public int inEdgeStart(int v) {
+        return reverseIndex().offsets[v];
+    }
+
+    /**
+     * Gets the index one past the last in-edge of vertex v in the reverse index.
+     */
+    public int inEdgeEnd(int v) {
+        return reverseIndex().offsets[v + 1];
+    }
+
+    /**
+     * Gets the source vertex of in-edge i. In-edges of a vertex are ordered by source.
+     */
+    public int inEdgeSource(int i) {
+        return reverseIndex().sources[i];
+    }
+
+    /**
+     * Gets the forward edge index (as used by {@link #edgeTarget}) of in-edge i.
+     */
+    public int inEdgeId(int i) {
+        return reverseIndex().edgeIds[i];
+    }
+
+    /**
+     * Gets the weight of in-edge i.
+     */
+    public int inEdgeWeight(int i) {
+        return edgeWeight(reverseIndex().edgeIds[i]);
+    }
+
+    /**
+     * Gets the number of in-edges of vertex v.
+     */
+    public int inDegree(int v) {
+        int[] inOffsets = reverseIndex().offsets;
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    /**
+     * Gets the modification count; changes whenever the graph is modified.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets per-vertex weights, switching the graph to the "node" weight model:
+     * the length of a path is then the sum of the weights of its vertices, and edge weights
+     * are ignored by the path algorithms. Pass null to return to the "edge" model.
+     *
+     * @param weights one weight per vertex, or null
+     */
+    public void setNodeWeights(int[] weights) {
+        if (weights != null && weights.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " node weights, got " + weights.length);
+        }
+        nodeWeights = weights;
+        version++;
+    }
+
+    /**
+     * Checks whether the graph uses the "node" weight model.
+     */
+    public boolean hasNodeWeights() {
+        return nodeWeights != null;
+    }
+
+    /**
+     * Gets the weight of vertex v, or 0 under the "edge" weight model.
+     */
+    public int getNodeWeight(int v) {
+        return nodeWeights != null ? nodeWeights[v] : 0;
     }
 
     /**
@@ -56,15 +278,29 @@ public class Graph {
         return n;
     }
 
+    /**
+     * Gets the number of edges.
+     */
+    public int getM() {
+        compact();
+        return offsets[n];
+    }
+
     /**
      * Gets the transpose of this graph (all edges reversed).
+     * Algorithms that only need to walk in-edges should use the cached reverse index
+     * ({@link #inEdgeStart}/{@link #inEdgeEnd}) instead of allocating a transposed copy.
      */
     public Graph transpose() {
-        Graph transposed = new Graph(n);
-        for (int u = 0; u < n; u++) {
-            for (Edge e : adjList.get(u)) {
-                transposed.addEdge(e.to, u, e.weight);
-            }
+        ReverseIndex index = reverseIndex();
+        int m = index.sources.length;
+        int[] transposedWeights = new int[m];
+        for (int i = 0; i < m; i++) {
+            transposedWeights[i] = edgeWeight(index.edgeIds[i]);
+        }
+        Graph transposed = new Graph(n, index.offsets.clone(), index.sources.clone(), transposedWeights);
+        if (nodeWeights != null) {
+            transposed.setNodeWeights(nodeWeights.clone());
         }
         return transposed;
     }
@@ -73,15 +309,116 @@ public class Graph {
      * Gets all edges in the graph.
      */
     public List<EdgeData> getAllEdges() {
-        List<EdgeData> edges = new ArrayList<>();
+        List<EdgeData> edges = new ArrayList<>(getM());
         for (int u = 0; u < n; u++) {
-            for (Edge e : adjList.get(u)) {
-                edges.add(new EdgeData(u, e.to, e.weight));
+            for (int e = edgeStart(u), end = edgeEnd(u); e < end; e++) {
+                edges.add(new EdgeData(u, edgeTarget(e), edgeWeight(e)));
             }
         }
         return edges;
     }
 
+    /**
+     * Gets the reverse index, building it on first use with a counting sort by target vertex.
+     */
+    private ReverseIndex reverseIndex() {
+        ReverseIndex index = reverse;
+        if (index == null) {
+            synchronized (this) {
+                index = reverse;
+                if (index == null) {
+                    index = buildReverseIndex();
+                    reverse = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private ReverseIndex buildReverseIndex() {
+        int m = getM();
+        int[] inOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = edgeStart(u), end = edgeEnd(u); e < end; e++) {
+                inOffsets[edgeTarget(e) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+
+        int[] sources = new int[m];
+        int[] edgeIds = new int[m];
+        int[] cursor = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = edgeStart(u), end = edgeEnd(u); e < end; e++) {
+                int pos = cursor[edgeTarget(e)]++;
+                sources[pos] = u;
+                edgeIds[pos] = e;
+            }
+        }
+        return new ReverseIndex(inOffsets, sources, edgeIds);
+    }
+
+    /**
+     * In-edges in CSR form: in-edge i of v has source sources[i] and forward edge index edgeIds[i].
+     */
+    private static final class ReverseIndex {
+        final int[] offsets;
+        final int[] sources;
+        final int[] edgeIds;
+
+        ReverseIndex(int[] offsets, int[] sources, int[] edgeIds) {
+            this.offsets = offsets;
+            this.sources = sources;
+            this.edgeIds = edgeIds;
+        }
+    }
+
+    /**
+     * Merges buffered edges into the CSR arrays, keeping per-vertex insertion order.
+     */
+    private void compact() {
+        if (pendingCount == 0) {
+            return;
+        }
+        int oldM = offsets[n];
+        int m = oldM + pendingCount;
+        int[] newOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            newOffsets[u + 1] = offsets[u + 1] - offsets[u];
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            newOffsets[pendingFrom[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            newOffsets[u + 1] += newOffsets[u];
+        }
+
+        int[] newTargets = new int[m];
+        int[] newWeights = new int[m];
+        int[] cursor = Arrays.copyOf(newOffsets, n);
+        for (int u = 0; u < n; u++) {
+            int count = offsets[u + 1] - offsets[u];
+            System.arraycopy(targets, offsets[u], newTargets, cursor[u], count);
+            System.arraycopy(weights, offsets[u], newWeights, cursor[u], count);
+            cursor[u] += count;
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            int pos = cursor[pendingFrom[i]]++;
+            newTargets[pos] = pendingTo[i];
+            newWeights[pos] = pendingWeight[i];
+        }
+
+        offsets = newOffsets;
+        targets = newTargets;
+        weights = newWeights;
+        pendingFrom = new int[0];
+        pendingTo = new int[0];
+        pendingWeight = new int[0];
+        pendingCount = 0;
+    }
+
     /**
      * Represents an edge with source, destination, and weight.
      */
@@ -96,4 +433,92 @@ public class Graph {
             this.w = w;
         }
     }
+
+    /**
+     * Accumulates edges in primitive arrays and builds a CSR graph with a
+     * two-pass count-then-fill (counting sort by source vertex).
+     */
+    public static class Builder {
+        private int n;
+        private int[] from;
+        private int[] to;
+        private int[] weight;
+        private int m = 0;
+
+        /**
+         * Creates a builder for a graph with n vertices.
+         */
+        public Builder(int n) {
+            this(n, 16);
+        }
+
+        /**
+         * Creates a builder for a graph with n vertices and room for expectedEdges edges.
+         */
+        public Builder(int n, int expectedEdges) {
+            this.n = n;
+            int capacity = Math.max(1, expectedEdges);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.weight = new int[capacity];
+        }
+
+        /**
+         * Sets the number of vertices (for inputs where it is only known after the edges).
+         */
+        public Builder setN(int n) {
+            this.n = n;
+            return this;
+        }
+
+        /**
+         * Adds a directed edge from u to v with weight w.
+         */
+        public Builder addEdge(int u, int v, int w) {
+            if (m == from.length) {
+                int capacity = from.length * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[m] = u;
+            to[m] = v;
+            weight[m] = w;
+            m++;
+            return this;
+        }
+
+        /**
+         * Gets the number of edges added so far.
+         */
+        public int getM() {
+            return m;
+        }
+
+        /**
+         * Builds the CSR graph. Out-edges of each vertex keep their insertion order.
+         */
+        public Graph build() {
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                if (from[i] < 0 || from[i] >= n || to[i] < 0 || to[i] >= n) {
+                    throw new IndexOutOfBoundsException("Edge " + from[i] + "->" + to[i] + " out of range for " + n + " vertices");
+                }
+                offsets[from[i] + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int i = 0; i < m; i++) {
+                int pos = cursor[from[i]]++;
+                targets[pos] = to[i];
+                weights[pos] = weight[i];
+            }
+            return new Graph(n, offsets, targets, weights);
+        }
+    }
 }
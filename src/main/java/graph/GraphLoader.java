@@ -1,51 +1,200 @@
 package graph;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import java.io.FileReader;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * Loads graph data from JSON files.
+ * The file is read once with a streaming {@link JsonReader}; edges go straight into a
+ * {@link Graph.Builder} without building a JSON tree.
+ *
+ * With {@code "weight_model": "node"} the file must also contain a {@code "durations"} array
+ * with one weight per vertex; these become the graph's node weights, and edges may omit "w".
  */
 public class GraphLoader {
-    private static final Gson gson = new Gson();
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    // Typical size of one edge object, e.g. {"u": 12, "v": 34, "w": 5}, used to pre-size the builder
+    private static final int BYTES_PER_EDGE = 24;
+
+    /**
+     * Graph together with the metadata stored next to it in the JSON file.
+     */
+    public static class GraphData {
+        public final Graph graph;
+        public final int source;
+        public final String weightModel;
+
+        public GraphData(Graph graph, int source, String weightModel) {
+            this.graph = graph;
+            this.source = source;
+            this.weightModel = weightModel;
+        }
+    }
+
+    /**
+     * Loads a graph and its metadata from a JSON file in a single pass.
+     * Top-level fields may appear in any order; unknown fields are skipped. The edge arrays are
+     * pre-sized from the file size, since "n" may follow "edges" and the edge count is not stored,
+     * and grow only if the file has unusually short edge objects.
+     *
+     * @param filename path to the JSON file
+     * @return graph, source vertex and weight model
+     * @throws IOException if file cannot be read, is missing "n" or "source", has an edge without
+     *         "u", "v" or (outside the "node" weight model) "w", or uses the "node" weight model without durations
+     */
+    public static GraphData load(String filename) throws IOException {
+        Path path = Paths.get(filename);
+
+        int n = -1;
+        int source = -1;
+        String weightModel = "edge";
+        int[] durations = null;
+        String unweightedEdge = null;
+        long expectedEdges = Files.size(path) / BYTES_PER_EDGE;
+        Graph.Builder builder = new Graph.Builder(0, (int) Math.min(expectedEdges, Integer.MAX_VALUE - 8));
+
+        try (JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "n":
+                        n = reader.nextInt();
+                        builder.setN(n);
+                        break;
+                    case "source":
+                        source = reader.nextInt();
+                        break;
+                    case "weight_model":
+                        weightModel = reader.nextString();
+                        break;
+                    case "edges":
+                        unweightedEdge = readEdges(reader, builder);
+                        break;
+                    case "durations":
+                        durations = readInts(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        if (n < 0) {
+            throw new IOException("Missing \"n\" in " + filename);
+        }
+        if (source < 0) {
+            throw new IOException("Missing \"source\" in " + filename);
+        }
+        // "weight_model" may follow "edges", so missing weights can only be judged now
+        if (unweightedEdge != null && !"node".equals(weightModel)) {
+            throw new IOException("Edge without \"w\" at " + unweightedEdge + " in " + filename);
+        }
+        Graph graph = builder.build();
+        if ("node".equals(weightModel)) {
+            if (durations == null || durations.length != n) {
+                throw new IOException("Weight model \"node\" needs " + n + " \"durations\" in " + filename);
+            }
+            graph.setNodeWeights(durations);
+        }
+        return new GraphData(graph, source, weightModel);
+    }
+
+    /**
+     * Reads an array of integers.
+     */
+    private static int[] readInts(JsonReader reader) throws IOException {
+        int[] values = new int[16];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = reader.nextInt();
+        }
+        reader.endArray();
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Reads the "edges" array; each edge object may list u, v and w in any order.
+     * An edge without "w" gets weight 1, which only the "node" weight model accepts.
+     *
+     * @return the JSON path of the first edge without "w", or null if every edge has one
+     */
+    private static String readEdges(JsonReader reader, Graph.Builder builder) throws IOException {
+        String unweightedEdge = null;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int u = -1, v = -1, w = 1;
+            boolean weighted = false;
+            String edgePath = reader.getPath();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "u":
+                        u = reader.nextInt();
+                        break;
+                    case "v":
+                        v = reader.nextInt();
+                        break;
+                    case "w":
+                        w = reader.nextInt();
+                        weighted = true;
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (u < 0 || v < 0) {
+                throw new IOException("Edge without \"u\"/\"v\" at " + reader.getPath());
+            }
+            if (!weighted && unweightedEdge == null) {
+                unweightedEdge = edgePath;
+            }
+            builder.addEdge(u, v, w);
+        }
+        reader.endArray();
+        return unweightedEdge;
+    }
 
     /**
      * Loads a graph from a JSON file.
-     * 
+     *
      * @param filename path to the JSON file
      * @return loaded Graph object
      * @throws IOException if file cannot be read
      */
     public static Graph loadFromJson(String filename) throws IOException {
-        JsonObject json = gson.fromJson(new FileReader(filename), JsonObject.class);
-        
-        int n = json.get("n").getAsInt();
-        Graph graph = new Graph(n);
-        
-        JsonArray edges = json.get("edges").getAsJsonArray();
-        for (JsonElement edgeElem : edges) {
-            JsonObject edge = edgeElem.getAsJsonObject();
-            int u = edge.get("u").getAsInt();
-            int v = edge.get("v").getAsInt();
-            int w = edge.get("w").getAsInt();
-            graph.addEdge(u, v, w);
-        }
-        
-        return graph;
+        return load(filename).graph;
     }
 
     /**
      * Gets the source vertex from JSON file.
+     * Prefer {@link #load}, which returns the graph and source from one pass.
      */
     public static int getSourceFromJson(String filename) throws IOException {
-        JsonObject json = gson.fromJson(new FileReader(filename), JsonObject.class);
-        return json.get("source").getAsInt();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("source") && reader.peek() == JsonToken.NUMBER) {
+                    return reader.nextInt();
+                }
+                reader.skipValue();
+            }
+        }
+        throw new IOException("Missing \"source\" in " + filename);
     }
 }
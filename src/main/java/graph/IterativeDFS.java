@@ -0,0 +1,124 @@
+package graph;
+
+/**
+ * Depth-first search driven by explicit primitive stacks (vertex + edge cursor)
+ * instead of recursion, so arbitrarily deep graphs run in the default thread stack.
+ *
+ * Visits edges in the same order as the equivalent recursive DFS and records
+ * preorder (discovery) and postorder (finish) sequences across all searches.
+ * Can follow out-edges or, via the graph's reverse index, in-edges.
+ */
+public class IterativeDFS {
+    private static final byte UNVISITED = 0;
+    private static final byte ON_STACK = 1;
+    private static final byte FINISHED = 2;
+
+    private final Graph graph;
+    private final boolean reverse;
+    private final Metrics metrics;
+    private final byte[] state;
+    private final int[] stack;
+    private final int[] cursor;
+    private final int[] preorder;
+    private final int[] postorder;
+    private int preorderCount;
+    private int postorderCount;
+
+    /**
+     * Creates a DFS engine.
+     *
+     * @param graph graph to search
+     * @param reverse follow in-edges instead of out-edges
+     * @param metrics receives dfsVisits and edgesTraversed counts
+     */
+    public IterativeDFS(Graph graph, boolean reverse, Metrics metrics) {
+        int n = graph.getN();
+        this.graph = graph;
+        this.reverse = reverse;
+        this.metrics = metrics;
+        this.state = new byte[n];
+        this.stack = new int[n];
+        this.cursor = new int[n];
+        this.preorder = new int[n];
+        this.postorder = new int[n];
+    }
+
+    /**
+     * Searches from root, skipping vertices visited by earlier searches.
+     *
+     * @param root start vertex; must not have been visited yet
+     * @param stopAtBackEdge abandon the search at the first edge back into the active path
+     * @return false if an edge back into the active path (a cycle) was found
+     */
+    public boolean visit(int root, boolean stopAtBackEdge) {
+        boolean acyclic = true;
+        int depth = 0;
+        push(root, 0);
+
+        while (depth >= 0) {
+            int v = stack[depth];
+            int end = reverse ? graph.inEdgeEnd(v) : graph.edgeEnd(v);
+            if (cursor[depth] < end) {
+                int e = cursor[depth]++;
+                int w = reverse ? graph.inEdgeSource(e) : graph.edgeTarget(e);
+                metrics.incrementEdgesTraversed();
+                if (state[w] == UNVISITED) {
+                    push(w, ++depth);
+                } else if (state[w] == ON_STACK) {
+                    acyclic = false;
+                    if (stopAtBackEdge) {
+                        return false;
+                    }
+                }
+                continue;
+            }
+            state[v] = FINISHED;
+            postorder[postorderCount++] = v;
+            depth--;
+        }
+        return acyclic;
+    }
+
+    private void push(int v, int depth) {
+        state[v] = ON_STACK;
+        stack[depth] = v;
+        cursor[depth] = reverse ? graph.inEdgeStart(v) : graph.edgeStart(v);
+        preorder[preorderCount++] = v;
+        metrics.incrementDfsVisits();
+    }
+
+    /**
+     * Checks whether a vertex has been reached by any search so far.
+     */
+    public boolean isVisited(int v) {
+        return state[v] != UNVISITED;
+    }
+
+    /**
+     * Gets the number of vertices discovered so far.
+     */
+    public int getPreorderCount() {
+        return preorderCount;
+    }
+
+    /**
+     * Gets the i-th discovered vertex.
+     */
+    public int getPreorder(int i) {
+        return preorder[i];
+    }
+
+    /**
+     * Gets the number of vertices finished so far.
+     */
+    public int getPostorderCount() {
+        return postorderCount;
+    }
+
+    /**
+     * Gets the i-th finished vertex.
+     */
+    public int getPostorder(int i) {
+        return postorder[i];
+    }
+}
@@ -0,0 +1,125 @@
+package graph;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram of latencies in nanoseconds with log-linear buckets.
+ *
+ * Values below 2^SUB_BITS get a bucket each; above that, every power of two is split into
+ * 2^SUB_BITS equal buckets, so a reported percentile is never more than about 3% above the
+ * true value. Recording is one atomic increment plus a compare-and-set on the maximum, and
+ * the whole long range fits in under 2000 buckets.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Summarizes the recorded latencies. Not atomic with respect to concurrent
+     * {@link #record} calls; {@link MetricsRegistry} provides that.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            copy[b] = counts.get(b);
+            count += copy[b];
+        }
+        long maxValue = max.get();
+        return new Snapshot(count, percentile(copy, count, 0.5, maxValue),
+                percentile(copy, count, 0.99, maxValue), percentile(copy, count, 0.999, maxValue), maxValue);
+    }
+
+    /**
+     * Clears all recorded latencies.
+     */
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) {
+            counts.set(b, 0);
+        }
+        max.set(0);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * Gets the largest value that falls into bucket b.
+     */
+    static long bucketUpperBound(int b) {
+        if (b < SUB_COUNT) {
+            return b;
+        }
+        int exponent = b / SUB_COUNT + SUB_BITS - 1;
+        long sub = b % SUB_COUNT;
+        long lower = (SUB_COUNT + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Finds the bucket holding the value of rank ceil(q * count) and reports its upper bound,
+     * capped at the exact maximum.
+     */
+    private static long percentile(long[] counts, long count, double q, long maxValue) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(b), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Summary of a histogram; all latencies in nanoseconds.
+     */
+    public static class Snapshot {
+        public final long count;
+        public final long p50;
+        public final long p99;
+        public final long p999;
+        public final long max;
+
+        public Snapshot(long count, long p50, long p99, long p999, long max) {
+            this.count = count;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Latency{count=%d, p50=%.4f ms, p99=%.4f ms, p999=%.4f ms, max=%.4f ms}",
+                    count, p50 / 1_000_000.0, p99 / 1_000_000.0, p999 / 1_000_000.0, max / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package graph;
+
+import java.nio.IntBuffer;
+
+/**
+ * Read-only graph whose CSR arrays live in memory-mapped buffers.
+ * Created by {@link BinaryGraphFormat#load}; algorithms read the mapped file
+ * directly, so the edge arrays are never copied onto the Java heap.
+ * Each array is mapped in windows of 2^shift ints, since a single mapping cannot exceed 2 GB.
+ */
+public class MappedGraph extends Graph {
+    private final IntBuffer[] offsets;
+    private final IntBuffer[] targets;
+    private final IntBuffer[] weights;
+    private final int shift;
+    private final int mask;
+    private final int m;
+    private final int source;
+    private final String weightModel;
+
+    MappedGraph(int n, int m, int source, String weightModel,
+                IntBuffer[] offsets, IntBuffer[] targets, IntBuffer[] weights, int shift) {
+        // Storage is provided by the mapped buffers, not the heap CSR arrays
+        super(n, null, null, null);
+        this.m = m;
+        this.source = source;
+        this.weightModel = weightModel;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.shift = shift;
+        this.mask = (1 << shift) - 1;
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     */
+    @Override
+    public void addEdge(int u, int v, int w) {
+        throw new UnsupportedOperationException("Memory-mapped graphs are read-only");
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     */
+    @Override
+    public boolean removeEdge(int u, int v) {
+        throw new UnsupportedOperationException("Memory-mapped graphs are read-only");
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     */
+    @Override
+    public boolean setEdgeWeight(int u, int v, int w) {
+        throw new UnsupportedOperationException("Memory-mapped graphs are read-only");
+    }
+
+    @Override
+    public int edgeStart(int u) {
+        return offsets[u >>> shift].get(u & mask);
+    }
+
+    @Override
+    public int edgeEnd(int u) {
+        return offsets[(u + 1) >>> shift].get((u + 1) & mask);
+    }
+
+    @Override
+    public int edgeTarget(int e) {
+        return targets[e >>> shift].get(e & mask);
+    }
+
+    @Override
+    public int edgeWeight(int e) {
+        return weights[e >>> shift].get(e & mask);
+    }
+
+    @Override
+    public int getM() {
+        return m;
+    }
+
+    /**
+     * Gets the source vertex stored in the file header.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the weight model stored in the file header ("edge" or "node").
+     */
+    public String getWeightModel() {
+        return weightModel;
+    }
+}
@@ -3,102 +3,71 @@ package graph;
 /**
  * Metrics interface for tracking algorithm performance.
  * Records operation counters and execution time.
+ *
+ * Algorithms take an instance per object: {@link CountingMetrics} (the default) records
+ * everything, and {@link NoOpMetrics#INSTANCE} records nothing; its methods perform no work.
  */
-public class Metrics {
-    private long dfsVisits = 0;
-    private long edgesTraversed = 0;
-    private long queuePops = 0;
-    private long queuePushes = 0;
-    private long relaxations = 0;
-    private long startTime = 0;
-    private long endTime = 0;
-
+public interface Metrics {
     /**
      * Start timing the algorithm.
      */
-    public void start() {
-        startTime = System.nanoTime();
-    }
+    void start();
 
     /**
      * Stop timing the algorithm.
      */
-    public void stop() {
-        endTime = System.nanoTime();
-    }
+    void stop();
 
     /**
      * Get execution time in nanoseconds.
      */
-    public long getTimeNanos() {
-        return endTime - startTime;
-    }
+    long getTimeNanos();
 
     /**
      * Get execution time in milliseconds.
      */
-    public double getTimeMillis() {
-        return (endTime - startTime) / 1_000_000.0;
-    }
+    double getTimeMillis();
+
+    void incrementDfsVisits();
+
+    void incrementEdgesTraversed();
+
+    void incrementQueuePops();
+
+    void incrementQueuePushes();
+
+    void incrementRelaxations();
+
+    void incrementCacheHits();
+
+    void incrementCacheMisses();
+
+    void addDfsVisits(long count);
+
+    void addEdgesTraversed(long count);
 
-    public void incrementDfsVisits() {
-        dfsVisits++;
-    }
+    void addQueuePops(long count);
 
-    public void incrementEdgesTraversed() {
-        edgesTraversed++;
-    }
+    void addQueuePushes(long count);
 
-    public void incrementQueuePops() {
-        queuePops++;
-    }
+    void addRelaxations(long count);
 
-    public void incrementQueuePushes() {
-        queuePushes++;
-    }
+    long getDfsVisits();
 
-    public void incrementRelaxations() {
-        relaxations++;
-    }
+    long getEdgesTraversed();
 
-    public long getDfsVisits() {
-        return dfsVisits;
-    }
+    long getQueuePops();
 
-    public long getEdgesTraversed() {
-        return edgesTraversed;
-    }
+    long getQueuePushes();
 
-    public long getQueuePops() {
-        return queuePops;
-    }
+    long getRelaxations();
 
-    public long getQueuePushes() {
-        return queuePushes;
-    }
+    long getCacheHits();
 
-    public long getRelaxations() {
-        return relaxations;
-    }
+    long getCacheMisses();
 
     /**
      * Reset all counters and timers.
      */
-    public void reset() {
-        dfsVisits = 0;
-        edgesTraversed = 0;
-        queuePops = 0;
-        queuePushes = 0;
-        relaxations = 0;
-        startTime = 0;
-        endTime = 0;
-    }
-
-    @Override
-    public String toString() {
-        return String.format(
-            "Metrics{time=%.4f ms, dfsVisits=%d, edgesTraversed=%d, queuePops=%d, queuePushes=%d, relaxations=%d}",
-            getTimeMillis(), dfsVisits, edgesTraversed, queuePops, queuePushes, relaxations
-        );
-    }
+    void reset();
 }
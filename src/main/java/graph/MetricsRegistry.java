@@ -0,0 +1,184 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe metrics accumulated across many algorithm runs.
+ *
+ * Algorithms keep counting into a plain {@link Metrics} handle from {@link #forOperation}, one
+ * per algorithm instance and thread, so hot loops stay uncontended. Each {@link Metrics#stop()}
+ * flushes what the handle counted since its last flush into striped {@link LongAdder} totals
+ * and records the run's duration in the operation's {@link LatencyHistogram}.
+ * Flushes hold the read lock, so any number of threads flush concurrently;
+ * {@link #snapshotAndReset()} takes the write lock, so every run is reported exactly once.
+ */
+public class MetricsRegistry {
+    private final LongAdder dfsVisits = new LongAdder();
+    private final LongAdder edgesTraversed = new LongAdder();
+    private final LongAdder queuePops = new LongAdder();
+    private final LongAdder queuePushes = new LongAdder();
+    private final LongAdder relaxations = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates a handle that reports to this registry under the given operation name,
+     * e.g. {@code new TopologicalSort(dag, registry.forOperation("kahn"))}.
+     * A handle must not be shared between threads.
+     */
+    public Metrics forOperation(String operation) {
+        return new OperationMetrics(this, latencies.computeIfAbsent(operation, name -> new LatencyHistogram()));
+    }
+
+    /**
+     * Reads all totals and latency summaries without resetting them.
+     */
+    public Snapshot snapshot() {
+        return capture(false);
+    }
+
+    /**
+     * Reads all totals and latency summaries and resets them in one atomic step:
+     * every flushed run lands in exactly one snapshot.
+     */
+    public Snapshot snapshotAndReset() {
+        return capture(true);
+    }
+
+    private Snapshot capture(boolean reset) {
+        lock.writeLock().lock();
+        try {
+            Map<String, LatencyHistogram.Snapshot> summaries = new TreeMap<>();
+            for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+                summaries.put(entry.getKey(), entry.getValue().snapshot());
+                if (reset) {
+                    entry.getValue().reset();
+                }
+            }
+            return new Snapshot(read(dfsVisits, reset), read(edgesTraversed, reset), read(queuePops, reset),
+                    read(queuePushes, reset), read(relaxations, reset), read(cacheHits, reset),
+                    read(cacheMisses, reset), Collections.unmodifiableMap(summaries));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long read(LongAdder adder, boolean reset) {
+        return reset ? adder.sumThenReset() : adder.sum();
+    }
+
+    private void flush(OperationMetrics handle, LatencyHistogram histogram, long nanos) {
+        lock.readLock().lock();
+        try {
+            dfsVisits.add(handle.getDfsVisits() - handle.flushedDfsVisits);
+            edgesTraversed.add(handle.getEdgesTraversed() - handle.flushedEdgesTraversed);
+            queuePops.add(handle.getQueuePops() - handle.flushedQueuePops);
+            queuePushes.add(handle.getQueuePushes() - handle.flushedQueuePushes);
+            relaxations.add(handle.getRelaxations() - handle.flushedRelaxations);
+            cacheHits.add(handle.getCacheHits() - handle.flushedCacheHits);
+            cacheMisses.add(handle.getCacheMisses() - handle.flushedCacheMisses);
+            if (nanos >= 0) {
+                histogram.record(nanos);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thread-confined handle: counts like {@link CountingMetrics}, so an algorithm's
+     * {@code getMetrics()} still shows its last run, and flushes to the registry on stop.
+     */
+    private static final class OperationMetrics extends CountingMetrics {
+        private final MetricsRegistry registry;
+        private final LatencyHistogram histogram;
+        private boolean timing;
+
+        // Counter values already flushed since the last reset
+        private long flushedDfsVisits;
+        private long flushedEdgesTraversed;
+        private long flushedQueuePops;
+        private long flushedQueuePushes;
+        private long flushedRelaxations;
+        private long flushedCacheHits;
+        private long flushedCacheMisses;
+
+        OperationMetrics(MetricsRegistry registry, LatencyHistogram histogram) {
+            this.registry = registry;
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void start() {
+            super.start();
+            timing = true;
+        }
+
+        @Override
+        public void stop() {
+            super.stop();
+            registry.flush(this, histogram, timing ? getTimeNanos() : -1);
+            timing = false;
+            flushedDfsVisits = getDfsVisits();
+            flushedEdgesTraversed = getEdgesTraversed();
+            flushedQueuePops = getQueuePops();
+            flushedQueuePushes = getQueuePushes();
+            flushedRelaxations = getRelaxations();
+            flushedCacheHits = getCacheHits();
+            flushedCacheMisses = getCacheMisses();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            timing = false;
+            flushedDfsVisits = 0;
+            flushedEdgesTraversed = 0;
+            flushedQueuePops = 0;
+            flushedQueuePushes = 0;
+            flushedRelaxations = 0;
+            flushedCacheHits = 0;
+            flushedCacheMisses = 0;
+        }
+    }
+
+    /**
+     * Totals since the last reset and latency summaries per operation, sorted by name.
+     */
+    public static class Snapshot {
+        public final long dfsVisits;
+        public final long edgesTraversed;
+        public final long queuePops;
+        public final long queuePushes;
+        public final long relaxations;
+        public final long cacheHits;
+        public final long cacheMisses;
+        public final Map<String, LatencyHistogram.Snapshot> latencies;
+
+        public Snapshot(long dfsVisits, long edgesTraversed, long queuePops, long queuePushes, long relaxations,
+                        long cacheHits, long cacheMisses, Map<String, LatencyHistogram.Snapshot> latencies) {
+            this.dfsVisits = dfsVisits;
+            this.edgesTraversed = edgesTraversed;
+            this.queuePops = queuePops;
+            this.queuePushes = queuePushes;
+            this.relaxations = relaxations;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.latencies = latencies;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Snapshot{dfsVisits=%d, edgesTraversed=%d, queuePops=%d, queuePushes=%d, relaxations=%d, cacheHits=%d, cacheMisses=%d, latencies=%s}",
+                dfsVisits, edgesTraversed, queuePops, queuePushes, relaxations, cacheHits, cacheMisses, latencies
+            );
+        }
+    }
+}
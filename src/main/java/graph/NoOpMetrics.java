@@ -0,0 +1,122 @@
+package graph;
+
+/**
+ * Metrics that record nothing: every method performs no work, and every counter and timer reads as zero.
+ * Stateless, so the single {@link #INSTANCE} can be shared by any number of algorithms and threads.
+ */
+public final class NoOpMetrics implements Metrics {
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public long getTimeNanos() {
+        return 0;
+    }
+
+    @Override
+    public double getTimeMillis() {
+        return 0;
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+    }
+
+    @Override
+    public void incrementEdgesTraversed() {
+    }
+
+    @Override
+    public void incrementQueuePops() {
+    }
+
+    @Override
+    public void incrementQueuePushes() {
+    }
+
+    @Override
+    public void incrementRelaxations() {
+    }
+
+    @Override
+    public void incrementCacheHits() {
+    }
+
+    @Override
+    public void incrementCacheMisses() {
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+    }
+
+    @Override
+    public void addEdgesTraversed(long count) {
+    }
+
+    @Override
+    public void addQueuePops(long count) {
+    }
+
+    @Override
+    public void addQueuePushes(long count) {
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return 0;
+    }
+
+    @Override
+    public long getEdgesTraversed() {
+        return 0;
+    }
+
+    @Override
+    public long getQueuePops() {
+        return 0;
+    }
+
+    @Override
+    public long getQueuePushes() {
+        return 0;
+    }
+
+    @Override
+    public long getRelaxations() {
+        return 0;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return 0;
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return 0;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public String toString() {
+        return "Metrics{disabled}";
+    }
+}
@@ -0,0 +1,230 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch space for repeated traversals over graphs with up to {@code capacity} vertices.
+ *
+ * Holds a primitive ring-buffer queue, an order buffer, per-vertex marks, per-vertex remaining
+ * in-degrees and per-vertex distances/parents. Per-vertex arrays are epoch-stamped: starting a
+ * new run bumps an epoch counter instead of clearing the arrays, and a slot whose stamp is stale
+ * reads as its initial value. Epochs start at 1 and stamps at 0, so a new workspace reads as
+ * freshly reset. Once allocated, a workspace lets {@code TopologicalSort.kahn} and
+ * {@code DAGShortestPath} run without producing garbage.
+ *
+ * A workspace is not thread-safe; use one per thread.
+ */
+public class TraversalWorkspace {
+    private final int capacity;
+
+    // Ring-buffer queue
+    private final int[] queue;
+    private final int mask;
+    private int head;
+    private int tail;
+
+    // Order produced by the last run
+    private final int[] order;
+    private int orderSize;
+
+    // Vertex v is marked when markStamp[v] == markEpoch
+    private final int[] markStamp;
+    private int markEpoch = 1;
+
+    // Remaining in-degrees, valid where degreeStamp == degreeEpoch
+    private final int[] remaining;
+    private final int[] degreeStamp;
+    private int degreeEpoch = 1;
+
+    // Distances and parents, valid where distanceStamp == distanceEpoch
+    private final int[] distance;
+    private final int[] parent;
+    private final int[] distanceStamp;
+    private int distanceEpoch = 1;
+    private int defaultDistance;
+
+    /**
+     * Creates a workspace for graphs with up to capacity vertices.
+     */
+    public TraversalWorkspace(int capacity) {
+        this.capacity = capacity;
+        int queueSize = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.queue = new int[queueSize];
+        this.mask = queueSize - 1;
+        this.order = new int[capacity];
+        this.markStamp = new int[capacity];
+        this.remaining = new int[capacity];
+        this.degreeStamp = new int[capacity];
+        this.distance = new int[capacity];
+        this.parent = new int[capacity];
+        this.distanceStamp = new int[capacity];
+    }
+
+    /**
+     * Gets the maximum number of vertices this workspace supports.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Checks that a graph fits in this workspace.
+     */
+    public void checkCapacity(Graph graph) {
+        if (graph.getN() > capacity) {
+            throw new IllegalArgumentException("Workspace capacity " + capacity + " < " + graph.getN() + " vertices");
+        }
+    }
+
+    // ---- queue ----
+
+    public void clearQueue() {
+        head = 0;
+        tail = 0;
+    }
+
+    public boolean isQueueEmpty() {
+        return head == tail;
+    }
+
+    public void enqueue(int v) {
+        queue[tail++ & mask] = v;
+    }
+
+    public int dequeue() {
+        return queue[head++ & mask];
+    }
+
+    // ---- order ----
+
+    public void clearOrder() {
+        orderSize = 0;
+    }
+
+    public void appendOrder(int v) {
+        order[orderSize++] = v;
+    }
+
+    /**
+     * Gets the number of vertices in the order produced by the last run.
+     */
+    public int getOrderSize() {
+        return orderSize;
+    }
+
+    /**
+     * Gets the i-th vertex of the order produced by the last run.
+     */
+    public int getOrder(int i) {
+        return order[i];
+    }
+
+    /**
+     * Sorts the order buffer ascending.
+     */
+    public void sortOrder() {
+        Arrays.sort(order, 0, orderSize);
+    }
+
+    // ---- marks ----
+
+    /**
+     * Starts a new run of marking; all vertices become unmarked.
+     */
+    public void resetMarks() {
+        if (++markEpoch == 0) {
+            Arrays.fill(markStamp, 0);
+            markEpoch = 1;
+        }
+    }
+
+    /**
+     * Marks v in the current run.
+     *
+     * @return true if v was not marked yet
+     */
+    public boolean mark(int v) {
+        if (markStamp[v] == markEpoch) {
+            return false;
+        }
+        markStamp[v] = markEpoch;
+        return true;
+    }
+
+    public boolean isMarked(int v) {
+        return markStamp[v] == markEpoch;
+    }
+
+    // ---- remaining in-degrees ----
+
+    /**
+     * Starts a new run of in-degree counting; all vertices revert to their initial degree.
+     */
+    public void resetDegrees() {
+        if (++degreeEpoch == 0) {
+            Arrays.fill(degreeStamp, 0);
+            degreeEpoch = 1;
+        }
+    }
+
+    /**
+     * Decrements the remaining in-degree of v, which starts at initialDegree in each run.
+     *
+     * @return the remaining in-degree after the decrement
+     */
+    public int decrementDegree(int v, int initialDegree) {
+        if (degreeStamp[v] != degreeEpoch) {
+            degreeStamp[v] = degreeEpoch;
+            remaining[v] = initialDegree;
+        }
+        return --remaining[v];
+    }
+
+    // ---- distances ----
+
+    /**
+     * Starts a new run of distance computation; all distances revert to defaultDistance
+     * and all parents to -1.
+     */
+    public void resetDistances(int defaultDistance) {
+        this.defaultDistance = defaultDistance;
+        if (++distanceEpoch == 0) {
+            Arrays.fill(distanceStamp, 0);
+            distanceEpoch = 1;
+        }
+    }
+
+    /**
+     * Gets the distance of v in the current run.
+     */
+    public int getDistance(int v) {
+        return distanceStamp[v] == distanceEpoch ? distance[v] : defaultDistance;
+    }
+
+    /**
+     * Gets the parent of v on its best path in the current run, or -1.
+     */
+    public int getParent(int v) {
+        return distanceStamp[v] == distanceEpoch ? parent[v] : -1;
+    }
+
+    /**
+     * Sets the distance and parent of v in the current run.
+     */
+    public void setDistance(int v, int d, int p) {
+        distanceStamp[v] = distanceEpoch;
+        distance[v] = d;
+        parent[v] = p;
+    }
+
+    /**
+     * Copies the distances of the first n vertices into a new array.
+     */
+    public int[] copyDistances(int n) {
+        int[] copy = new int[n];
+        for (int v = 0; v < n; v++) {
+            copy[v] = getDistance(v);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,141 @@
+package graph.dagsp;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+import java.util.*;
+
+/**
+ * Critical path method (CPM) over a DAG whose vertices are events and whose edge weights are
+ * activity durations. One forward sweep over the topological order gives the earliest time of
+ * every vertex; one backward sweep gives the latest time that does not delay the project.
+ * Vertices without predecessors start at time 0, and the project ends at the largest earliest time.
+ *
+ * Under the "node" weight model vertices are tasks with durations instead: the sweeps run over
+ * finish times, and start times are finish times minus the task's duration.
+ */
+public class CriticalPathMethod {
+    private final DAGQueryPlan plan;
+    private Metrics metrics;
+
+    public CriticalPathMethod(Graph graph) {
+        this(DAGQueryPlan.compile(graph));
+    }
+
+    /**
+     * Creates an engine that reuses an already compiled plan.
+     */
+    public CriticalPathMethod(DAGQueryPlan plan) {
+        this.plan = plan;
+        this.metrics = new CountingMetrics();
+    }
+
+    /**
+     * Computes earliest/latest times and slack for every vertex.
+     *
+     * @return the schedule
+     */
+    public Schedule compute() {
+        metrics.reset();
+        metrics.start();
+
+        int n = plan.getN();
+        // earliest/latest hold event times under the edge model and finish times under the node model
+        int[] earliest = new int[n];
+        int[] latest = new int[n];
+        for (int v = 0; v < n; v++) {
+            earliest[v] = plan.baseDistance(v);
+        }
+        int[] freeSlack = new int[n];
+        long relaxations = 0;
+
+        // Forward sweep: earliest[v] = max over in-edges (earliest[u] + w), at least its own base
+        int projectLength = 0;
+        for (int p = 0; p < n; p++) {
+            int u = plan.getOrder(p);
+            int eu = earliest[u];
+            projectLength = Math.max(projectLength, eu);
+            for (int e = plan.edgeStart(p), end = plan.edgeEnd(p); e < end; e++) {
+                int to = plan.edgeTarget(e);
+                int candidate = eu + plan.edgeWeight(e);
+                if (candidate > earliest[to]) {
+                    earliest[to] = candidate;
+                }
+            }
+            relaxations += plan.edgeEnd(p) - plan.edgeStart(p);
+        }
+
+        // Backward sweep: latest[u] = min over out-edges (latest[to] - w), and free slack
+        // is how far u can slip before it delays the earliest time of any successor
+        for (int p = n - 1; p >= 0; p--) {
+            int u = plan.getOrder(p);
+            int lu = projectLength;
+            int fu = projectLength - earliest[u];
+            for (int e = plan.edgeStart(p), end = plan.edgeEnd(p); e < end; e++) {
+                int to = plan.edgeTarget(e);
+                int w = plan.edgeWeight(e);
+                lu = Math.min(lu, latest[to] - w);
+                fu = Math.min(fu, earliest[to] - w - earliest[u]);
+            }
+            latest[u] = lu;
+            freeSlack[u] = fu;
+            relaxations += plan.edgeEnd(p) - plan.edgeStart(p);
+        }
+
+        int[] totalSlack = new int[n];
+        int[] earliestStart = new int[n];
+        int[] latestStart = new int[n];
+        int[] critical = new int[n];
+        int criticalCount = 0;
+        for (int p = 0; p < n; p++) {
+            int v = plan.getOrder(p);
+            totalSlack[v] = latest[v] - earliest[v];
+            earliestStart[v] = earliest[v] - plan.baseDistance(v);
+            latestStart[v] = latest[v] - plan.baseDistance(v);
+            if (totalSlack[v] == 0) {
+                critical[criticalCount++] = v;
+            }
+        }
+
+        metrics.addRelaxations(relaxations);
+        metrics.stop();
+        return new Schedule(earliestStart, latestStart, totalSlack, freeSlack,
+                Arrays.copyOf(critical, criticalCount), projectLength);
+    }
+
+    /**
+     * Gets the metrics object.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Per-vertex CPM times. Critical vertices have zero total slack and are listed in topological order.
+     */
+    public static class Schedule {
+        public final int[] earliestStart;
+        public final int[] latestStart;
+        public final int[] totalSlack;
+        public final int[] freeSlack;
+        public final int[] criticalVertices;
+        public final int projectLength;
+
+        public Schedule(int[] earliestStart, int[] latestStart, int[] totalSlack, int[] freeSlack,
+                        int[] criticalVertices, int projectLength) {
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.totalSlack = totalSlack;
+            this.freeSlack = freeSlack;
+            this.criticalVertices = criticalVertices;
+            this.projectLength = projectLength;
+        }
+
+        /**
+         * Checks whether a vertex lies on a critical path.
+         */
+        public boolean isCritical(int v) {
+            return totalSlack[v] == 0;
+        }
+    }
+}
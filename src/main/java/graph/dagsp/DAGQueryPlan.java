@@ -0,0 +1,769 @@
+package graph.dagsp;
+
+import graph.Graph;
+import graph.NoOpMetrics;
+import graph.TraversalWorkspace;
+import graph.topo.TopologicalSort;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Precompiled query plan for a static DAG.
+ *
+ * Compiling computes a topological order once and lays the edges out in CSR form sorted by
+ * topological position, so a single-source query is one sequential sweep over the edge arrays,
+ * starting at the source's position, with no sorting or in-degree bookkeeping.
+ * A plan can be shared by any number of {@link DAGShortestPath} instances. Its order and edge
+ * layout never change; only edge weights can be updated in place, together with the graph's,
+ * through {@link DAGShortestPath#updateEdgeWeights}.
+ *
+ * Under the "node" weight model ({@link Graph#hasNodeWeights()}) the plan stores the weight of
+ * each edge's target as the edge weight and starts every query at the source's own weight,
+ * so a path's length is the sum of its vertex weights without expanding the graph.
+ */
+public class DAGQueryPlan {
+    private static final int INF = DAGShortestPath.INF;
+    // Sources relaxed together in one sweep of a batch query
+    static final int BATCH_BLOCK = 16;
+    // Largest array length every JVM accepts
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final Graph graph;
+    private long version;
+    private final int n;
+    private final int[] order;     // position -> vertex
+    private final int[] position;  // vertex -> position
+    private final int[] offsets;   // out-edges of order[p] are [offsets[p], offsets[p + 1])
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] nodeWeights;  // null under the "edge" weight model
+    private volatile InEdges inEdges;  // built on first repair
+
+    private DAGQueryPlan(Graph graph, int[] order) {
+        this.graph = graph;
+        this.version = graph.getVersion();
+        this.n = graph.getN();
+        this.order = order;
+        this.position = new int[n];
+        Arrays.fill(position, -1);
+        for (int p = 0; p < n; p++) {
+            if (position[order[p]] != -1) {
+                throw new IllegalArgumentException("Vertex " + order[p] + " appears twice in the order");
+            }
+            position[order[p]] = p;
+        }
+
+        if (graph.hasNodeWeights()) {
+            this.nodeWeights = new int[n];
+            for (int v = 0; v < n; v++) {
+                nodeWeights[v] = graph.getNodeWeight(v);
+            }
+        } else {
+            this.nodeWeights = null;
+        }
+
+        int m = graph.getM();
+        this.offsets = new int[n + 1];
+        this.targets = new int[m];
+        this.weights = new int[m];
+        int k = 0;
+        for (int p = 0; p < n; p++) {
+            int u = order[p];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int to = graph.edgeTarget(e);
+                if (position[to] <= p) {
+                    throw new IllegalArgumentException("Order is not topological: edge " + u + "->" + to);
+                }
+                targets[k] = to;
+                weights[k] = nodeWeights != null ? nodeWeights[to] : graph.edgeWeight(e);
+                k++;
+            }
+            offsets[p + 1] = k;
+        }
+    }
+
+    /**
+     * Compiles a plan, computing the topological order with Kahn's algorithm.
+     *
+     * @throws IllegalStateException if graph contains cycles
+     */
+    public static DAGQueryPlan compile(Graph graph) {
+        List<Integer> order = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahn();
+        return compile(graph, order);
+    }
+
+    /**
+     * Compiles a plan from an already computed topological order.
+     *
+     * @throws IllegalArgumentException if the order is not a topological order of the graph
+     */
+    public static DAGQueryPlan compile(Graph graph, List<Integer> topoOrder) {
+        if (topoOrder.size() != graph.getN()) {
+            throw new IllegalArgumentException("Order has " + topoOrder.size() + " vertices, graph has " + graph.getN());
+        }
+        int[] order = new int[topoOrder.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = topoOrder.get(i);
+        }
+        return new DAGQueryPlan(graph, order);
+    }
+
+    /**
+     * Checks whether the plan still matches the graph it was compiled from.
+     */
+    public boolean isCurrent() {
+        return graph.getVersion() == version;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Gets the vertex at topological position p.
+     */
+    public int getOrder(int p) {
+        return order[p];
+    }
+
+    /**
+     * Gets the topological position of vertex v.
+     */
+    public int getPosition(int v) {
+        return position[v];
+    }
+
+    /**
+     * Gets the length of the path consisting of v alone: its weight under the "node" model, else 0.
+     */
+    public int baseDistance(int v) {
+        return nodeWeights != null ? nodeWeights[v] : 0;
+    }
+
+    /**
+     * Gets the index of the first out-edge of the vertex at position p.
+     */
+    public int edgeStart(int p) {
+        return offsets[p];
+    }
+
+    /**
+     * Gets the index one past the last out-edge of the vertex at position p.
+     */
+    public int edgeEnd(int p) {
+        return offsets[p + 1];
+    }
+
+    /**
+     * Gets the target vertex of edge e.
+     */
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Gets the effective weight of edge e; under the "node" model, the weight of its target.
+     */
+    public int edgeWeight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Computes shortest distances from source into the given arrays.
+     *
+     * @param distances receives distances, {@link DAGShortestPath#INF} if unreachable
+     * @param parent receives the predecessor on a shortest path, -1 if none
+     * @return number of edge relaxations performed
+     */
+    public long shortestPaths(int source, int[] distances, int[] parent) {
+        Arrays.fill(distances, INF);
+        Arrays.fill(parent, -1);
+        distances[source] = baseDistance(source);
+
+        long relaxations = 0;
+        for (int p = position[source]; p < n; p++) {
+            int u = order[p];
+            int du = distances[u];
+            if (du == INF) {
+                continue;
+            }
+            int end = offsets[p + 1];
+            relaxations += end - offsets[p];
+            for (int e = offsets[p]; e < end; e++) {
+                int to = targets[e];
+                int candidate = du + weights[e];
+                if (candidate < distances[to]) {
+                    distances[to] = candidate;
+                    parent[to] = u;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    /**
+     * Computes longest distances from source into the given arrays.
+     *
+     * @param distances receives distances, -{@link DAGShortestPath#INF} if unreachable
+     * @param parent receives the predecessor on a longest path, -1 if none
+     * @return number of edge relaxations performed
+     */
+    public long longestPaths(int source, int[] distances, int[] parent) {
+        Arrays.fill(distances, -INF);
+        Arrays.fill(parent, -1);
+        distances[source] = baseDistance(source);
+
+        long relaxations = 0;
+        for (int p = position[source]; p < n; p++) {
+            int u = order[p];
+            int du = distances[u];
+            if (du == -INF) {
+                continue;
+            }
+            int end = offsets[p + 1];
+            relaxations += end - offsets[p];
+            for (int e = offsets[p]; e < end; e++) {
+                int to = targets[e];
+                int candidate = du + weights[e];
+                if (candidate > distances[to]) {
+                    distances[to] = candidate;
+                    parent[to] = u;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    /**
+     * Computes shortest distances from source into a workspace without allocating.
+     *
+     * @return number of edge relaxations performed
+     */
+    public long shortestPaths(int source, TraversalWorkspace workspace) {
+        workspace.checkCapacity(graph);
+        workspace.resetDistances(INF);
+        workspace.setDistance(source, baseDistance(source), -1);
+
+        long relaxations = 0;
+        for (int p = position[source]; p < n; p++) {
+            int u = order[p];
+            int du = workspace.getDistance(u);
+            if (du == INF) {
+                continue;
+            }
+            int end = offsets[p + 1];
+            relaxations += end - offsets[p];
+            for (int e = offsets[p]; e < end; e++) {
+                int to = targets[e];
+                int candidate = du + weights[e];
+                if (candidate < workspace.getDistance(to)) {
+                    workspace.setDistance(to, candidate, u);
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    /**
+     * Computes longest distances from source into a workspace without allocating.
+     *
+     * @return number of edge relaxations performed
+     */
+    public long longestPaths(int source, TraversalWorkspace workspace) {
+        workspace.checkCapacity(graph);
+        workspace.resetDistances(-INF);
+        workspace.setDistance(source, baseDistance(source), -1);
+
+        long relaxations = 0;
+        for (int p = position[source]; p < n; p++) {
+            int u = order[p];
+            int du = workspace.getDistance(u);
+            if (du == -INF) {
+                continue;
+            }
+            int end = offsets[p + 1];
+            relaxations += end - offsets[p];
+            for (int e = offsets[p]; e < end; e++) {
+                int to = targets[e];
+                int candidate = du + weights[e];
+                if (candidate > workspace.getDistance(to)) {
+                    workspace.setDistance(to, candidate, u);
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    /**
+     * Checks whether the plan has an edge from u to v, so a batch of updates can be validated
+     * before any of it is applied.
+     *
+     * @throws IndexOutOfBoundsException if u or v is not a vertex
+     */
+    boolean hasEdge(int u, int v) {
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + n + " vertices");
+        }
+        for (int e = offsets[position[u]], end = offsets[position[u] + 1]; e < end; e++) {
+            if (targets[e] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Changes the weight of the first edge from u to v in the graph and in the plan, keeping
+     * the plan current. Under the "node" model only the graph's edge weight changes.
+     *
+     * @throws IllegalStateException if the plan is already out of date
+     * @throws IllegalArgumentException if there is no edge from u to v
+     */
+    void updateEdgeWeight(int u, int v, int w) {
+        if (!isCurrent()) {
+            throw new IllegalStateException("Plan no longer matches the graph");
+        }
+        if (!graph.setEdgeWeight(u, v, w)) {
+            throw new IllegalArgumentException("No edge " + u + "->" + v);
+        }
+        if (nodeWeights == null) {
+            for (int e = offsets[position[u]], end = offsets[position[u] + 1]; e < end; e++) {
+                if (targets[e] == v) {
+                    weights[e] = w;
+                    break;
+                }
+            }
+        }
+        version = graph.getVersion();
+    }
+
+    /**
+     * Repairs shortest distances from source, computed earlier into distances and parent,
+     * after the weights of edges into the given vertices changed. Affected vertices are
+     * recomputed from their in-edges in topological order (a heap of positions), and the change
+     * only spreads to successors of vertices whose distance actually changed. The result is
+     * identical to recomputing from scratch, parents included.
+     *
+     * @param changedTargets targets of the updated edges
+     * @return number of edge relaxations performed
+     */
+    public long repairShortestPaths(int source, int[] distances, int[] parent, int[] changedTargets,
+                                    TraversalWorkspace workspace) {
+        return repair(source, distances, parent, changedTargets, workspace, false);
+    }
+
+    /**
+     * Repairs longest distances from source like
+     * {@link #repairShortestPaths(int, int[], int[], int[], TraversalWorkspace)}.
+     *
+     * @return number of edge relaxations performed
+     */
+    public long repairLongestPaths(int source, int[] distances, int[] parent, int[] changedTargets,
+                                   TraversalWorkspace workspace) {
+        return repair(source, distances, parent, changedTargets, workspace, true);
+    }
+
+    private long repair(int source, int[] distances, int[] parent, int[] changedTargets,
+                        TraversalWorkspace workspace, boolean longest) {
+        workspace.checkCapacity(graph);
+        workspace.resetMarks();
+        int unreachable = longest ? -INF : INF;
+        int sourcePosition = position[source];
+        InEdges in = inEdges();
+        PositionHeap heap = new PositionHeap();
+        for (int v : changedTargets) {
+            if (position[v] > sourcePosition && workspace.mark(v)) {
+                heap.push(position[v]);
+            }
+        }
+
+        long relaxations = 0;
+        while (!heap.isEmpty()) {
+            int p = heap.pop();
+            int x = order[p];
+            // Same comparison order as the full sweep, so ties pick the same parent
+            int best = unreachable;
+            int bestParent = -1;
+            for (int i = in.offsets[p], end = in.offsets[p + 1]; i < end; i++) {
+                int u = in.sources[i];
+                int du = distances[u];
+                if (du == unreachable) {
+                    continue;
+                }
+                relaxations++;
+                int candidate = du + weights[in.edges[i]];
+                if (longest ? candidate > best : candidate < best) {
+                    best = candidate;
+                    bestParent = u;
+                }
+            }
+            parent[x] = bestParent;
+            if (best == distances[x]) {
+                continue;
+            }
+            distances[x] = best;
+            for (int e = offsets[p], end = offsets[p + 1]; e < end; e++) {
+                int to = targets[e];
+                if (workspace.mark(to)) {
+                    heap.push(position[to]);
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private InEdges inEdges() {
+        InEdges index = inEdges;
+        if (index == null) {
+            synchronized (this) {
+                index = inEdges;
+                if (index == null) {
+                    index = new InEdges();
+                    inEdges = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * In-edges by target position, each target's in-edges sorted by source position.
+     */
+    private class InEdges {
+        final int[] offsets = new int[n + 1];
+        final int[] sources;
+        final int[] edges;
+
+        InEdges() {
+            int m = targets.length;
+            for (int e = 0; e < m; e++) {
+                offsets[position[targets[e]] + 1]++;
+            }
+            for (int p = 0; p < n; p++) {
+                offsets[p + 1] += offsets[p];
+            }
+            sources = new int[m];
+            edges = new int[m];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int p = 0; p < n; p++) {
+                for (int e = DAGQueryPlan.this.offsets[p]; e < DAGQueryPlan.this.offsets[p + 1]; e++) {
+                    int slot = cursor[position[targets[e]]]++;
+                    sources[slot] = order[p];
+                    edges[slot] = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Binary min-heap of topological positions.
+     */
+    private static class PositionHeap {
+        private int[] items = new int[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (items[parent] <= value) {
+                    break;
+                }
+                items[i] = items[parent];
+                i = parent;
+            }
+            items[i] = value;
+        }
+
+        int pop() {
+            int top = items[0];
+            int last = items[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && items[child + 1] < items[child]) {
+                    child++;
+                }
+                if (last <= items[child]) {
+                    break;
+                }
+                items[i] = items[child];
+                i = child;
+            }
+            items[i] = last;
+            return top;
+        }
+    }
+
+    /**
+     * Computes the shortest path from source to target, touching only the slice of the
+     * topological order between them that can reach target. Afterwards the workspace holds
+     * the distance and parents of the touched vertices; target's distance is
+     * {@link DAGShortestPath#INF} if it is unreachable.
+     *
+     * @return number of edge relaxations performed
+     */
+    public long shortestPath(int source, int target, TraversalWorkspace workspace) {
+        return pointToPoint(source, target, workspace, false);
+    }
+
+    /**
+     * Computes the longest path from source to target, pruned like
+     * {@link #shortestPath(int, int, TraversalWorkspace)}; target's distance is
+     * -{@link DAGShortestPath#INF} if it is unreachable.
+     *
+     * @return number of edge relaxations performed
+     */
+    public long longestPath(int source, int target, TraversalWorkspace workspace) {
+        return pointToPoint(source, target, workspace, true);
+    }
+
+    /**
+     * Marks the ancestors of target whose position is not before source's with a backward
+     * search over in-edges, then relaxes only the marked vertices in topological order.
+     */
+    private long pointToPoint(int source, int target, TraversalWorkspace workspace, boolean longest) {
+        workspace.checkCapacity(graph);
+        int unreachable = longest ? -INF : INF;
+        workspace.resetDistances(unreachable);
+        workspace.resetMarks();
+        workspace.clearQueue();
+        workspace.clearOrder();
+
+        int low = position[source];
+        if (position[target] < low) {
+            return 0;
+        }
+        workspace.mark(target);
+        workspace.enqueue(target);
+        while (!workspace.isQueueEmpty()) {
+            int v = workspace.dequeue();
+            workspace.appendOrder(position[v]);
+            if (v == source) {
+                continue;
+            }
+            for (int e = graph.inEdgeStart(v), end = graph.inEdgeEnd(v); e < end; e++) {
+                int u = graph.inEdgeSource(e);
+                if (position[u] >= low && workspace.mark(u)) {
+                    workspace.enqueue(u);
+                }
+            }
+        }
+        if (!workspace.isMarked(source)) {
+            return 0;
+        }
+
+        // The order buffer holds positions of the marked vertices; sorted, it is their topological order
+        workspace.sortOrder();
+        workspace.setDistance(source, baseDistance(source), -1);
+        long relaxations = 0;
+        for (int i = 0, size = workspace.getOrderSize(); i < size; i++) {
+            int p = workspace.getOrder(i);
+            int u = order[p];
+            int du = workspace.getDistance(u);
+            if (du == unreachable) {
+                continue;
+            }
+            for (int e = offsets[p], end = offsets[p + 1]; e < end; e++) {
+                int to = targets[e];
+                if (!workspace.isMarked(to)) {
+                    continue;
+                }
+                relaxations++;
+                int candidate = du + weights[e];
+                int dt = workspace.getDistance(to);
+                if (longest ? candidate > dt : candidate < dt) {
+                    workspace.setDistance(to, candidate, u);
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    /**
+     * Batch shortest distances on the common fork-join pool.
+     *
+     * @see #shortestPaths(int[], ForkJoinPool)
+     */
+    public BatchResult shortestPaths(int[] sources) {
+        return shortestPaths(sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes shortest distances from many sources. Sources are processed in blocks of
+     * {@value #BATCH_BLOCK}; each block sweeps the topological order once, keeping the block's
+     * distances to a vertex next to each other so every edge is relaxed for all sources of the
+     * block in one tight loop. Blocks run in parallel on the given pool, at most one per worker,
+     * and each worker reuses one distance matrix for all its blocks. On graphs too large for a
+     * matrix of {@value #BATCH_BLOCK} distances per vertex, blocks are narrowed to fit an array.
+     *
+     * @param sources source vertices; may contain duplicates
+     * @param pool pool the blocks run on
+     * @return distances[i][v] from sources[i] to v, {@link DAGShortestPath#INF} if unreachable
+     */
+    public BatchResult shortestPaths(int[] sources, ForkJoinPool pool) {
+        return batch(sources, pool, false);
+    }
+
+    /**
+     * Batch longest distances on the common fork-join pool.
+     *
+     * @see #longestPaths(int[], ForkJoinPool)
+     */
+    public BatchResult longestPaths(int[] sources) {
+        return longestPaths(sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes longest distances from many sources, blocked like {@link #shortestPaths(int[], ForkJoinPool)}.
+     *
+     * @return distances[i][v] from sources[i] to v, -{@link DAGShortestPath#INF} if unreachable
+     */
+    public BatchResult longestPaths(int[] sources, ForkJoinPool pool) {
+        return batch(sources, pool, true);
+    }
+
+    private BatchResult batch(int[] sources, ForkJoinPool pool, boolean longest) {
+        for (int source : sources) {
+            if (source < 0 || source >= n) {
+                throw new IndexOutOfBoundsException("Source " + source + " out of range [0, " + n + ")");
+            }
+        }
+        int[][] distances = new int[sources.length][];
+        int block = Math.max(1, Math.min(BATCH_BLOCK, MAX_ARRAY_LENGTH / Math.max(1, n)));
+        int blocks = (sources.length + block - 1) / block;
+        int workers = Math.min(blocks, pool.getParallelism());
+        AtomicInteger nextBlock = new AtomicInteger();
+        long relaxations;
+        if (workers > 1) {
+            relaxations = pool.submit(() -> IntStream.range(0, workers).parallel()
+                    .mapToLong(worker -> sweepBlocks(sources, block, blocks, nextBlock, distances, longest))
+                    .sum()).join();
+        } else {
+            relaxations = sweepBlocks(sources, block, blocks, nextBlock, distances, longest);
+        }
+        return new BatchResult(distances, relaxations);
+    }
+
+    /**
+     * Sweeps blocks taken from nextBlock until none are left, reusing one distance matrix.
+     */
+    private long sweepBlocks(int[] sources, int block, int blocks, AtomicInteger nextBlock,
+                             int[][] out, boolean longest) {
+        int[] dist = null;
+        long relaxations = 0;
+        for (int b = nextBlock.getAndIncrement(); b < blocks; b = nextBlock.getAndIncrement()) {
+            if (dist == null) {
+                dist = new int[Math.multiplyExact(n, Math.min(block, sources.length))];
+            }
+            relaxations += sweepBlock(sources, b * block, block, dist, out, longest);
+        }
+        return relaxations;
+    }
+
+    /**
+     * Relaxes up to block sources starting at sources[first] in one sweep.
+     * The block's distances live in a vertex-major matrix: dist[v * width + i] is the
+     * distance from the i-th source of the block to v.
+     *
+     * @param dist scratch matrix of at least n * width entries
+     * @return number of edge relaxations, counting one per edge and source
+     */
+    private long sweepBlock(int[] sources, int first, int block, int[] dist, int[][] out, boolean longest) {
+        int width = Math.min(block, sources.length - first);
+        int unreachable = longest ? -INF : INF;
+        Arrays.fill(dist, 0, n * width, unreachable);
+        int start = n;
+        for (int i = 0; i < width; i++) {
+            int source = sources[first + i];
+            dist[source * width + i] = baseDistance(source);
+            start = Math.min(start, position[source]);
+        }
+
+        long relaxations = 0;
+        for (int p = start; p < n; p++) {
+            int u = order[p];
+            int from = u * width;
+            int reached = 0;
+            for (int i = 0; i < width; i++) {
+                if (dist[from + i] != unreachable) {
+                    reached++;
+                }
+            }
+            if (reached == 0) {
+                continue;
+            }
+            int end = offsets[p + 1];
+            relaxations += (long) (end - offsets[p]) * reached;
+            // Unreachable lanes must not be relaxed; when every lane is reached the guard is dropped
+            // so the lane loops stay branch-free for the JIT's auto-vectorizer
+            boolean guarded = reached < width;
+            for (int e = offsets[p]; e < end; e++) {
+                int to = targets[e] * width;
+                int w = weights[e];
+                if (guarded) {
+                    relaxGuarded(dist, from, to, width, w, unreachable, longest);
+                } else if (longest) {
+                    for (int i = 0; i < width; i++) {
+                        dist[to + i] = Math.max(dist[to + i], dist[from + i] + w);
+                    }
+                } else {
+                    for (int i = 0; i < width; i++) {
+                        dist[to + i] = Math.min(dist[to + i], dist[from + i] + w);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < width; i++) {
+            int[] row = new int[n];
+            for (int v = 0; v < n; v++) {
+                row[v] = dist[v * width + i];
+            }
+            out[first + i] = row;
+        }
+        return relaxations;
+    }
+
+    private static void relaxGuarded(int[] dist, int from, int to, int width, int w, int unreachable, boolean longest) {
+        for (int i = 0; i < width; i++) {
+            int d = dist[from + i];
+            if (d == unreachable) {
+                continue;
+            }
+            int candidate = d + w;
+            if (longest ? candidate > dist[to + i] : candidate < dist[to + i]) {
+                dist[to + i] = candidate;
+            }
+        }
+    }
+
+    /**
+     * Result of a batch query.
+     */
+    public static class BatchResult {
+        public final int[][] distances;
+        public final long relaxations;
+
+        public BatchResult(int[][] distances, long relaxations) {
+            this.distances = distances;
+            this.relaxations = relaxations;
+        }
+    }
+}
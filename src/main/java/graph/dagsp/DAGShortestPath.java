@@ -1,28 +1,71 @@
 package graph.dagsp;
 
+import graph.CountingMetrics;
 import graph.Graph;
 import graph.Metrics;
-import graph.topo.TopologicalSort;
+import graph.NoOpMetrics;
+import graph.TraversalWorkspace;
 import java.util.*;
 
 /**
  * Implementation of shortest and longest paths in a Directed Acyclic Graph (DAG).
- * Uses topological sort + dynamic programming approach.
+ * Uses topological sort + dynamic programming approach; the sort is done once per graph
+ * by a {@link DAGQueryPlan}.
  */
 public class DAGShortestPath {
     private final Graph graph;
     private Metrics metrics;
     private int[] distances;
     private int[] parent;
-    private static final int INF = Integer.MAX_VALUE / 2;
+    // Source, mode and graph version of the result held in distances/parent
+    private int lastSource = -1;
+    private boolean lastLongest;
+    private long lastVersion;
+    private DAGQueryPlan plan;
+    private TraversalWorkspace pointWorkspace;
+    private final PathCache cache = new PathCache(DEFAULT_CACHE_BYTES);
+    private long cacheVersion;
+    // Lookups since creation; the metrics only show the last query
+    private long cacheHits;
+    private long cacheMisses;
+    /** Distance of unreachable vertices (negated for longest paths). */
+    public static final int INF = Integer.MAX_VALUE / 2;
+    /** Default memory budget for cached single-source results. */
+    public static final long DEFAULT_CACHE_BYTES = 64L << 20;
 
     public DAGShortestPath(Graph graph) {
+        this(graph, new CountingMetrics());
+    }
+
+    /**
+     * Creates an instance that reports to the given metrics; pass
+     * {@link NoOpMetrics#INSTANCE} to run without counting.
+     */
+    public DAGShortestPath(Graph graph, Metrics metrics) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates an instance that answers queries from an already compiled plan,
+     * which may be shared with other instances.
+     */
+    public DAGShortestPath(DAGQueryPlan plan) {
+        this(plan, new CountingMetrics());
+    }
+
+    /**
+     * Creates an instance on a shared plan that reports to the given metrics.
+     */
+    public DAGShortestPath(DAGQueryPlan plan, Metrics metrics) {
+        this(plan.getGraph(), metrics);
+        this.plan = plan;
     }
 
     /**
-     * Computes single-source shortest paths using topological sort.
+     * Computes single-source shortest paths by relaxing edges in topological order.
+     * The order comes from the cached {@link DAGQueryPlan}, so repeated queries do not re-sort,
+     * and results for recently queried sources are served from an LRU cache.
      * 
      * @param source source vertex
      * @return array of shortest distances from source to all vertices
@@ -30,36 +73,15 @@ public class DAGShortestPath {
     public int[] shortestPaths(int source) {
         metrics.reset();
         metrics.start();
-
-        int n = graph.getN();
-        distances = new int[n];
-        parent = new int[n];
-        Arrays.fill(distances, INF);
-        Arrays.fill(parent, -1);
-        distances[source] = 0;
-
-        // Get topological order
-        TopologicalSort topo = new TopologicalSort(graph);
-        List<Integer> order = topo.kahn();
-
-        // Relax edges in topological order
-        for (int u : order) {
-            for (Graph.Edge e : graph.getAdjacent(u)) {
-                metrics.incrementRelaxations();
-                if (distances[u] != INF && distances[e.to] > distances[u] + e.weight) {
-                    distances[e.to] = distances[u] + e.weight;
-                    parent[e.to] = u;
-                }
-            }
-        }
-
+        singleSource(source, false);
         metrics.stop();
         return distances.clone();
     }
 
     /**
      * Computes longest path (critical path) in the DAG.
-     * Uses sign inversion: multiply weights by -1 and find shortest path.
+     * Relaxes edges in topological order, maximizing instead of minimizing;
+     * results are cached like {@link #shortestPaths(int)}.
      * 
      * @param source source vertex
      * @return array of longest distances from source to all vertices
@@ -67,33 +89,161 @@ public class DAGShortestPath {
     public int[] longestPaths(int source) {
         metrics.reset();
         metrics.start();
+        singleSource(source, true);
+        metrics.stop();
+        return distances.clone();
+    }
 
-        int n = graph.getN();
-        distances = new int[n];
-        parent = new int[n];
-        Arrays.fill(distances, -INF);
-        Arrays.fill(parent, -1);
-        distances[source] = 0;
-
-        // Get topological order
-        TopologicalSort topo = new TopologicalSort(graph);
-        List<Integer> order = topo.kahn();
-
-        // Relax edges in topological order (maximizing instead of minimizing)
-        for (int u : order) {
-            if (distances[u] != -INF) {
-                for (Graph.Edge e : graph.getAdjacent(u)) {
-                    metrics.incrementRelaxations();
-                    if (distances[e.to] < distances[u] + e.weight) {
-                        distances[e.to] = distances[u] + e.weight;
-                        parent[e.to] = u;
-                    }
-                }
-            }
+    /**
+     * Loads distances and parents for source into the fields, from the cache if possible.
+     */
+    private void singleSource(int source, boolean longest) {
+        DAGQueryPlan current = plan();
+        PathCache.Entry entry = lookup(source, longest);
+        if (entry == null) {
+            int n = graph.getN();
+            int[] d = new int[n];
+            int[] p = new int[n];
+            metrics.addRelaxations(longest ? current.longestPaths(source, d, p) : current.shortestPaths(source, d, p));
+            entry = new PathCache.Entry(d, p);
+            cache.put(source, longest, entry);
         }
+        remember(source, longest, entry);
+    }
+
+    private void remember(int source, boolean longest, PathCache.Entry entry) {
+        distances = entry.distances;
+        parent = entry.parent;
+        lastSource = source;
+        lastLongest = longest;
+        lastVersion = graph.getVersion();
+    }
 
+    /**
+     * Computes shortest paths from many sources with one sweep per block of sources,
+     * much faster than calling {@link #shortestPaths(int)} in a loop.
+     * Parents are not recorded; {@link #getDistances()} is not affected.
+     *
+     * @param sources source vertices
+     * @return distances[i][v] from sources[i] to v, {@link #INF} if unreachable
+     */
+    public int[][] shortestPaths(int[] sources) {
+        metrics.reset();
+        metrics.start();
+        DAGQueryPlan.BatchResult batch = plan().shortestPaths(sources);
+        metrics.addRelaxations(batch.relaxations);
         metrics.stop();
-        return distances.clone();
+        return batch.distances;
+    }
+
+    /**
+     * Computes longest paths from many sources with one sweep per block of sources.
+     * Parents are not recorded; {@link #getDistances()} is not affected.
+     *
+     * @param sources source vertices
+     * @return distances[i][v] from sources[i] to v, -{@link #INF} if unreachable
+     */
+    public int[][] longestPaths(int[] sources) {
+        metrics.reset();
+        metrics.start();
+        DAGQueryPlan.BatchResult batch = plan().longestPaths(sources);
+        metrics.addRelaxations(batch.relaxations);
+        metrics.stop();
+        return batch.distances;
+    }
+
+    /**
+     * Computes single-source shortest paths without allocating. Distances and parents
+     * are left in the workspace (unreachable vertices read as {@link #INF});
+     * {@link #getDistances()} and {@link #reconstructPath} are not affected.
+     *
+     * @param source source vertex
+     * @param workspace workspace with capacity for this graph
+     */
+    public void shortestPaths(int source, TraversalWorkspace workspace) {
+        metrics.reset();
+        metrics.start();
+        metrics.addRelaxations(plan().shortestPaths(source, workspace));
+        metrics.stop();
+    }
+
+    /**
+     * Computes single-source longest paths without allocating. Distances and parents
+     * are left in the workspace (unreachable vertices read as -{@link #INF});
+     * {@link #getDistances()} and {@link #reconstructPath} are not affected.
+     *
+     * @param source source vertex
+     * @param workspace workspace with capacity for this graph
+     */
+    public void longestPaths(int source, TraversalWorkspace workspace) {
+        metrics.reset();
+        metrics.start();
+        metrics.addRelaxations(plan().longestPaths(source, workspace));
+        metrics.stop();
+    }
+
+    /**
+     * Gets the query plan, compiling it on first use and again after the graph changes.
+     * Cached results are dropped after any change, including weight updates made through
+     * another instance sharing the plan.
+     */
+    public DAGQueryPlan plan() {
+        if (plan == null || !plan.isCurrent()) {
+            plan = DAGQueryPlan.compile(graph);
+            cache.clear();
+        }
+        if (cacheVersion != graph.getVersion()) {
+            cache.clear();
+            cacheVersion = graph.getVersion();
+        }
+        return plan;
+    }
+
+    /**
+     * Changes a batch of edge weights (each update sets the weight of the first edge u->v)
+     * in the graph and the plan, then repairs the last single-source result in place instead
+     * of recomputing it: only vertices downstream of the changed edges whose distance
+     * actually changes are touched. {@link #getDistances()} and {@link #reconstructPath}
+     * reflect the new weights afterwards; other cached results are dropped.
+     *
+     * @param updates new weights, as (u, v, w) triples
+     * @throws IllegalArgumentException if an updated edge does not exist; the whole batch is
+     *         checked first, so nothing is changed then
+     * @throws IndexOutOfBoundsException if an update names a vertex outside the graph
+     * @see DAGQueryPlan#repairShortestPaths
+     */
+    public void updateEdgeWeights(List<Graph.EdgeData> updates) {
+        metrics.reset();
+        metrics.start();
+        try {
+            DAGQueryPlan current = plan();
+            boolean repairable = distances != null && lastVersion == graph.getVersion();
+
+            int[] changedTargets = new int[updates.size()];
+            for (int i = 0; i < changedTargets.length; i++) {
+                Graph.EdgeData update = updates.get(i);
+                if (!current.hasEdge(update.u, update.v)) {
+                    throw new IllegalArgumentException("No edge " + update.u + "->" + update.v);
+                }
+                changedTargets[i] = update.v;
+            }
+            for (Graph.EdgeData update : updates) {
+                current.updateEdgeWeight(update.u, update.v, update.w);
+            }
+
+            cache.clear();
+            cacheVersion = graph.getVersion();
+            if (repairable) {
+                TraversalWorkspace workspace = pointQueryWorkspace();
+                metrics.addRelaxations(lastLongest
+                        ? current.repairLongestPaths(lastSource, distances, parent, changedTargets, workspace)
+                        : current.repairShortestPaths(lastSource, distances, parent, changedTargets, workspace));
+                lastVersion = graph.getVersion();
+                cache.put(lastSource, lastLongest, new PathCache.Entry(distances, parent));
+            }
+        } finally {
+            metrics.stop();
+        }
     }
 
     /**
@@ -121,6 +271,19 @@ public class DAGShortestPath {
         return new CriticalPathResult(path, maxDist);
     }
 
+    /**
+     * Finds the k most critical (longest) chains from source, each ending at a vertex
+     * without out-edges, using the cached plan.
+     *
+     * @param source source vertex
+     * @param k number of paths
+     * @return up to k paths, longest first
+     * @see TopKPaths
+     */
+    public List<CriticalPathResult> findCriticalPaths(int source, int k) {
+        return new TopKPaths(plan(), metrics).longestPaths(source, k);
+    }
+
     /**
      * Reconstructs a path from source to target.
      * 
@@ -129,6 +292,10 @@ public class DAGShortestPath {
      * @return list of vertices forming the path
      */
     public List<Integer> reconstructPath(int source, int target) {
+        return reconstructPath(parent, source, target);
+    }
+
+    private static List<Integer> reconstructPath(int[] parent, int source, int target) {
         List<Integer> path = new ArrayList<>();
         int current = target;
         
@@ -145,10 +312,139 @@ public class DAGShortestPath {
 
     /**
      * Reconstructs optimal path from source to target using shortest paths.
+     * Only vertices between source and target in topological order that can reach target
+     * are relaxed; {@link #getDistances()} is not affected.
+     *
+     * @return the path, or just [target] if target is unreachable
      */
     public List<Integer> reconstructShortestPath(int source, int target) {
-        shortestPaths(source);
-        return reconstructPath(source, target);
+        metrics.reset();
+        metrics.start();
+        PathCache.Entry entry = cachedEntry(source, false);
+        if (entry != null) {
+            metrics.stop();
+            return reconstructPath(entry.parent, source, target);
+        }
+        TraversalWorkspace workspace = pointQueryWorkspace();
+        metrics.addRelaxations(plan().shortestPath(source, target, workspace));
+
+        List<Integer> path = new ArrayList<>();
+        for (int current = target; current != -1; current = workspace.getParent(current)) {
+            path.add(current);
+            if (current == source) break;
+        }
+        Collections.reverse(path);
+        metrics.stop();
+        return path;
+    }
+
+    /**
+     * Computes the shortest distance from source to target, relaxing only the vertices
+     * that lie between them and can reach target.
+     *
+     * @return the distance, or {@link #INF} if target is unreachable
+     */
+    public int shortestDistance(int source, int target) {
+        metrics.reset();
+        metrics.start();
+        PathCache.Entry entry = cachedEntry(source, false);
+        if (entry != null) {
+            metrics.stop();
+            return entry.distances[target];
+        }
+        TraversalWorkspace workspace = pointQueryWorkspace();
+        metrics.addRelaxations(plan().shortestPath(source, target, workspace));
+        metrics.stop();
+        return workspace.getDistance(target);
+    }
+
+    /**
+     * Computes the longest distance from source to target, pruned like {@link #shortestDistance}.
+     *
+     * @return the distance, or -{@link #INF} if target is unreachable
+     */
+    public int longestDistance(int source, int target) {
+        metrics.reset();
+        metrics.start();
+        PathCache.Entry entry = cachedEntry(source, true);
+        if (entry != null) {
+            metrics.stop();
+            return entry.distances[target];
+        }
+        TraversalWorkspace workspace = pointQueryWorkspace();
+        metrics.addRelaxations(plan().longestPath(source, target, workspace));
+        metrics.stop();
+        return workspace.getDistance(target);
+    }
+
+    /**
+     * Looks up a cached single-source result for a point-to-point query, counting the hit or miss.
+     */
+    private PathCache.Entry cachedEntry(int source, boolean longest) {
+        plan();
+        return lookup(source, longest);
+    }
+
+    private PathCache.Entry lookup(int source, boolean longest) {
+        PathCache.Entry entry = cache.get(source, longest);
+        if (entry != null) {
+            cacheHits++;
+            metrics.incrementCacheHits();
+        } else {
+            cacheMisses++;
+            metrics.incrementCacheMisses();
+        }
+        return entry;
+    }
+
+    /**
+     * Sets the memory budget for cached single-source results; 0 disables caching.
+     * Least recently used results are evicted first.
+     */
+    public void setCacheCapacity(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Cache capacity must be non-negative: " + bytes);
+        }
+        cache.setCapacityBytes(bytes);
+    }
+
+    /**
+     * Gets the number of single-source results currently cached.
+     */
+    public int getCachedResultCount() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of queries answered from the cache since this instance was created.
+     * {@link #getMetrics()} is reset by every query and only shows the last one.
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Gets the number of cache lookups that missed since this instance was created.
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Drops all cached single-source results.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the workspace reused by point-to-point queries, so they cost nothing outside the searched slice.
+     */
+    private TraversalWorkspace pointQueryWorkspace() {
+        if (pointWorkspace == null || pointWorkspace.getCapacity() < graph.getN()) {
+            pointWorkspace = new TraversalWorkspace(graph.getN());
+        }
+        return pointWorkspace;
     }
 
     /**
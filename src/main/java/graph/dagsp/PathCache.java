@@ -0,0 +1,252 @@
+package graph.dagsp;
+
+import java.util.Arrays;
+
+/**
+ * Least-recently-used cache of single-source results, bounded by the bytes of the cached arrays.
+ * Keys combine the source vertex with the query kind (shortest or longest).
+ * Cached arrays are shared with callers and must not be modified.
+ *
+ * Entries live in slots: an open-addressing table (linear probing) maps a primitive key to its
+ * slot, and the slots form a doubly linked list from most to least recently used, so a lookup
+ * neither boxes the key nor allocates.
+ */
+class PathCache {
+    // Rough per-entry cost of the entry object, array headers and slot bookkeeping
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final int NONE = -1;
+
+    private long capacityBytes;
+    private long sizeBytes;
+    private int count;
+
+    // table[i] is a slot + 1, or 0 if empty; at most half full
+    private int[] table = new int[16];
+
+    // Slot storage; free slots are chained through next[]
+    private long[] keys = new long[8];
+    private Entry[] values = new Entry[8];
+    private int[] prev = new int[8];
+    private int[] next = new int[8];
+    private int used;
+    private int free = NONE;
+    private int head = NONE;  // most recently used
+    private int tail = NONE;  // least recently used
+
+    PathCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Distances and parents computed for one source.
+     */
+    static class Entry {
+        final int[] distances;
+        final int[] parent;
+
+        Entry(int[] distances, int[] parent) {
+            this.distances = distances;
+            this.parent = parent;
+        }
+
+        long bytes() {
+            return 4L * (distances.length + parent.length) + ENTRY_OVERHEAD;
+        }
+    }
+
+    static long key(int source, boolean longest) {
+        return ((long) source << 1) | (longest ? 1 : 0);
+    }
+
+    /**
+     * Gets a cached entry and marks it most recently used, or returns null.
+     */
+    Entry get(int source, boolean longest) {
+        int index = find(key(source, longest));
+        if (index < 0) {
+            return null;
+        }
+        int slot = table[index] - 1;
+        moveToFront(slot);
+        return values[slot];
+    }
+
+    /**
+     * Caches an entry, evicting least recently used entries until the cache fits its capacity.
+     * Entries larger than the whole capacity are not cached.
+     */
+    void put(int source, boolean longest, Entry entry) {
+        long bytes = entry.bytes();
+        if (bytes > capacityBytes) {
+            return;
+        }
+        long key = key(source, longest);
+        int index = find(key);
+        int slot;
+        if (index >= 0) {
+            slot = table[index] - 1;
+            sizeBytes -= values[slot].bytes();
+            moveToFront(slot);
+        } else {
+            slot = allocateSlot();
+            keys[slot] = key;
+            insert(key, slot);
+            linkFront(slot);
+            count++;
+        }
+        values[slot] = entry;
+        sizeBytes += bytes;
+        evict();
+    }
+
+    void setCapacityBytes(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+        evict();
+    }
+
+    long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(values, 0, used, null);
+        used = 0;
+        free = NONE;
+        head = NONE;
+        tail = NONE;
+        count = 0;
+        sizeBytes = 0;
+    }
+
+    private void evict() {
+        while (sizeBytes > capacityBytes && tail != NONE) {
+            int slot = tail;
+            sizeBytes -= values[slot].bytes();
+            remove(find(keys[slot]));
+            unlink(slot);
+            values[slot] = null;
+            next[slot] = free;
+            free = slot;
+            count--;
+        }
+    }
+
+    // ---- hash table ----
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (table.length - 1);
+    }
+
+    /**
+     * Gets the table index holding key, or -1.
+     */
+    private int find(long key) {
+        int mask = table.length - 1;
+        for (int i = home(key); table[i] != 0; i = (i + 1) & mask) {
+            if (keys[table[i] - 1] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long key, int slot) {
+        if ((count + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        int mask = table.length - 1;
+        int i = home(key);
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = slot + 1;
+    }
+
+    /**
+     * Empties table index hole, shifting later entries of its probe run back into the hole.
+     */
+    private void remove(int hole) {
+        int mask = table.length - 1;
+        for (int i = (hole + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = home(keys[table[i] - 1]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table[hole] = table[i];
+                hole = i;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int i = home(keys[entry - 1]);
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = entry;
+            }
+        }
+    }
+
+    // ---- slots and recency list ----
+
+    private int allocateSlot() {
+        if (free != NONE) {
+            int slot = free;
+            free = next[slot];
+            return slot;
+        }
+        if (used == keys.length) {
+            int capacity = used * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    private void linkFront(int slot) {
+        prev[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            prev[head] = slot;
+        } else {
+            tail = slot;
+        }
+        head = slot;
+    }
+
+    private void unlink(int slot) {
+        if (prev[slot] != NONE) {
+            next[prev[slot]] = next[slot];
+        } else {
+            head = next[slot];
+        }
+        if (next[slot] != NONE) {
+            prev[next[slot]] = prev[slot];
+        } else {
+            tail = prev[slot];
+        }
+    }
+
+    private void moveToFront(int slot) {
+        if (head != slot) {
+            unlink(slot);
+            linkFront(slot);
+        }
+    }
+}
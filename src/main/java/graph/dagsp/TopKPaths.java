@@ -0,0 +1,260 @@
+package graph.dagsp;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+import java.util.*;
+
+/**
+ * K longest or shortest paths in a DAG.
+ *
+ * Each vertex keeps at most K candidate path lengths, each with the predecessor vertex and the
+ * rank of the predecessor's candidate it extends. The candidates live in flat primitive arrays
+ * (slot v * K + r) organized as bounded min-heaps, so memory is O(n * K). Vertices are processed
+ * in the plan's topological order; a vertex's heap is sorted best-first when its turn comes and
+ * then extended along every out-edge. Paths are only materialized for the K winners at the end.
+ *
+ * Shortest paths are computed as longest paths over negated weights.
+ */
+public class TopKPaths {
+    private final DAGQueryPlan plan;
+    private Metrics metrics;
+
+    // Candidate storage of the current query
+    private int k;
+    private long[] value;
+    private int[] pred;
+    private int[] predRank;
+    private int[] count;
+
+    public TopKPaths(Graph graph) {
+        this(DAGQueryPlan.compile(graph));
+    }
+
+    /**
+     * Creates an engine that reuses an already compiled plan.
+     */
+    public TopKPaths(DAGQueryPlan plan) {
+        this(plan, new CountingMetrics());
+    }
+
+    /**
+     * Creates an engine on a compiled plan that reports to the given metrics.
+     */
+    public TopKPaths(DAGQueryPlan plan, Metrics metrics) {
+        this.plan = plan;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Finds the k longest paths from source to any vertex without out-edges.
+     *
+     * @return up to k paths, longest first
+     */
+    public List<DAGShortestPath.CriticalPathResult> longestPaths(int source, int k) {
+        return run(source, -1, k, 1);
+    }
+
+    /**
+     * Finds the k longest paths from source to target.
+     *
+     * @return up to k paths, longest first; empty if target is unreachable
+     */
+    public List<DAGShortestPath.CriticalPathResult> longestPaths(int source, int target, int k) {
+        return run(source, target, k, 1);
+    }
+
+    /**
+     * Finds the k shortest paths from source to any vertex without out-edges.
+     *
+     * @return up to k paths, shortest first
+     */
+    public List<DAGShortestPath.CriticalPathResult> shortestPaths(int source, int k) {
+        return run(source, -1, k, -1);
+    }
+
+    /**
+     * Finds the k shortest paths from source to target.
+     *
+     * @return up to k paths, shortest first; empty if target is unreachable
+     */
+    public List<DAGShortestPath.CriticalPathResult> shortestPaths(int source, int target, int k) {
+        return run(source, target, k, -1);
+    }
+
+    /**
+     * Runs one query. Vertex n is a virtual sink fed by every reached vertex without out-edges.
+     *
+     * @param target target vertex, or -1 for the virtual sink
+     * @param sign 1 to maximize, -1 to minimize
+     * @throws ArithmeticException if the length of a returned path does not fit in an int
+     */
+    private List<DAGShortestPath.CriticalPathResult> run(int source, int target, int k, int sign) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        metrics.reset();
+        metrics.start();
+
+        int n = plan.getN();
+        this.k = k;
+        value = new long[(n + 1) * k];
+        pred = new int[(n + 1) * k];
+        predRank = new int[(n + 1) * k];
+        count = new int[n + 1];
+
+        offer(source, sign * (long) plan.baseDistance(source), -1, -1);
+        int last = target >= 0 ? plan.getPosition(target) : n - 1;
+        for (int p = plan.getPosition(source); p <= last; p++) {
+            int u = plan.getOrder(p);
+            if (count[u] == 0) {
+                continue;
+            }
+            sortBestFirst(u);
+            if (u == target) {
+                break;
+            }
+            int start = plan.edgeStart(p);
+            int end = plan.edgeEnd(p);
+            if (start == end && target < 0) {
+                extend(u, n, 0);
+                continue;
+            }
+            for (int e = start; e < end; e++) {
+                extend(u, plan.edgeTarget(e), sign * (long) plan.edgeWeight(e));
+            }
+        }
+
+        int end = target >= 0 ? target : n;
+        if (target < 0) {
+            sortBestFirst(n);
+        }
+        List<DAGShortestPath.CriticalPathResult> paths = new ArrayList<>(count[end]);
+        for (int r = 0; r < count[end]; r++) {
+            // Lengths are summed as longs; one that does not fit the result type is an error, not a wrap
+            int length = Math.toIntExact(sign * value[end * k + r]);
+            paths.add(new DAGShortestPath.CriticalPathResult(reconstruct(end, r, n), length));
+        }
+
+        metrics.stop();
+        return paths;
+    }
+
+    /**
+     * Extends u's sorted candidates along an edge. Candidates are best-first, so the first one
+     * rejected by a full heap means the rest would be rejected too.
+     */
+    private void extend(int u, int to, long weight) {
+        int base = u * k;
+        for (int r = 0; r < count[u]; r++) {
+            metrics.incrementRelaxations();
+            if (!offer(to, value[base + r] + weight, u, r)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Offers a candidate to v's bounded min-heap, whose root is the worst kept candidate.
+     *
+     * @return false if the heap is full and the candidate is not better than its root
+     */
+    private boolean offer(int v, long candidate, int from, int fromRank) {
+        int base = v * k;
+        int size = count[v];
+        if (size < k) {
+            count[v] = size + 1;
+            set(base + size, candidate, from, fromRank);
+            siftUp(base, size);
+            return true;
+        }
+        if (candidate <= value[base]) {
+            return false;
+        }
+        set(base, candidate, from, fromRank);
+        siftDown(base, 0, size);
+        return true;
+    }
+
+    /**
+     * Heap-sorts v's candidates in place into descending (best-first) order.
+     */
+    private void sortBestFirst(int v) {
+        int base = v * k;
+        for (int size = count[v] - 1; size > 0; size--) {
+            swap(base, base + size);
+            siftDown(base, 0, size);
+        }
+    }
+
+    private void siftUp(int base, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (value[base + parent] <= value[base + i]) {
+                break;
+            }
+            swap(base + parent, base + i);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int base, int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && value[base + child + 1] < value[base + child]) {
+                child++;
+            }
+            if (value[base + i] <= value[base + child]) {
+                break;
+            }
+            swap(base + i, base + child);
+            i = child;
+        }
+    }
+
+    private void set(int slot, long candidate, int from, int fromRank) {
+        value[slot] = candidate;
+        pred[slot] = from;
+        predRank[slot] = fromRank;
+    }
+
+    private void swap(int a, int b) {
+        long tv = value[a];
+        value[a] = value[b];
+        value[b] = tv;
+        int tp = pred[a];
+        pred[a] = pred[b];
+        pred[b] = tp;
+        int tr = predRank[a];
+        predRank[a] = predRank[b];
+        predRank[b] = tr;
+    }
+
+    /**
+     * Follows predecessor links from the r-th candidate of v back to the source.
+     * The virtual sink n is not part of the path.
+     */
+    private List<Integer> reconstruct(int v, int r, int virtualSink) {
+        List<Integer> path = new ArrayList<>();
+        while (v != -1) {
+            if (v != virtualSink) {
+                path.add(v);
+            }
+            int slot = v * k + r;
+            v = pred[slot];
+            r = predRank[slot];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Gets the metrics object.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
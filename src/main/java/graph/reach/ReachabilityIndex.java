@@ -0,0 +1,295 @@
+package graph.reach;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+import graph.NoOpMetrics;
+import graph.TraversalWorkspace;
+import graph.scc.KosarajuSCC;
+import graph.topo.TopologicalSort;
+import java.util.*;
+
+/**
+ * Reachability index over the condensation DAG.
+ *
+ * Vertices of one strongly connected component reach each other, so a query between original
+ * vertices reduces to a query between their components. Every query first applies the
+ * topological cut: a component can only reach components at a later topological position.
+ *
+ * Small DAGs (up to {@link #DENSE_THRESHOLD} components) store the full transitive closure as
+ * one bitset row per component, so queries are a single bit test. Larger DAGs store
+ * GRAIL-style interval labels from {@link #LABEL_COUNT} depth-first traversals with different
+ * child orders: if a reaches b, every interval of b is nested in the matching interval of a.
+ * A failed containment answers "no" at once. The traversals' preorder numbers give a positive
+ * certificate as well: b is reachable if it is a descendant of a in one of the DFS trees.
+ * Otherwise a depth-first search that only enters components whose labels still contain b's
+ * decides the query, stopping at the first component that has b as a tree descendant.
+ *
+ * Queries on a large index reuse internal scratch space and are not thread-safe.
+ */
+public class ReachabilityIndex {
+    /** Largest number of components for which the full transitive closure is stored. */
+    public static final int DENSE_THRESHOLD = 8192;
+    /** Number of interval labels per component in the sparse index. */
+    public static final int LABEL_COUNT = 2;
+
+    private final Graph dag;
+    private final int[] vertexToComponent;
+    private final int componentCount;
+    private final int[] position;   // topological position of each component
+    private final Metrics metrics;
+
+    // Dense index: component a reaches b iff bit b of row a is set
+    private long[] closure;
+    private int words;
+
+    // Sparse index: label k of component c is [low[k][c], post[k][c]]; pre[k][c] is the preorder rank
+    private int[][] low;
+    private int[][] post;
+    private int[][] pre;
+
+    // Scratch space of the pruned search; a component is visited when visitStamp == epoch
+    private int[] stack;
+    private int[] visitStamp;
+    private int epoch;
+
+    /**
+     * Builds the index for a condensation.
+     */
+    public ReachabilityIndex(KosarajuSCC.CondensationResult condensation) {
+        this(condensation, new CountingMetrics());
+    }
+
+    /**
+     * Builds the index for a condensation, reporting to the given metrics; pass
+     * {@link NoOpMetrics#INSTANCE} to build without counting.
+     */
+    public ReachabilityIndex(KosarajuSCC.CondensationResult condensation, Metrics metrics) {
+        this(condensation, metrics, DENSE_THRESHOLD);
+    }
+
+    ReachabilityIndex(KosarajuSCC.CondensationResult condensation, Metrics metrics, int denseThreshold) {
+        this.dag = condensation.condensationGraph;
+        this.vertexToComponent = condensation.vertexToComponent;
+        this.componentCount = dag.getN();
+        this.position = new int[componentCount];
+        this.metrics = metrics;
+
+        metrics.reset();
+        metrics.start();
+        TraversalWorkspace workspace = new TraversalWorkspace(componentCount);
+        new TopologicalSort(dag, NoOpMetrics.INSTANCE).kahn(workspace);
+        int[] order = new int[componentCount];
+        for (int p = 0; p < componentCount; p++) {
+            order[p] = workspace.getOrder(p);
+            position[order[p]] = p;
+        }
+        if (componentCount <= denseThreshold) {
+            buildClosure(order);
+        } else {
+            buildLabels(order);
+        }
+        metrics.stop();
+    }
+
+    /**
+     * ORs successor rows into each row in reverse topological order.
+     */
+    private void buildClosure(int[] order) {
+        words = (componentCount + 63) >>> 6;
+        closure = new long[componentCount * words];
+        for (int p = componentCount - 1; p >= 0; p--) {
+            int c = order[p];
+            int row = c * words;
+            closure[row + (c >>> 6)] |= 1L << c;
+            for (int e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+                int succ = dag.edgeTarget(e) * words;
+                for (int w = 0; w < words; w++) {
+                    closure[row + w] |= closure[succ + w];
+                }
+                metrics.incrementEdgesTraversed();
+            }
+        }
+    }
+
+    /**
+     * Computes interval labels. Traversal k visits roots and children forward for even k and
+     * backward for odd k; post is the postorder rank and low the smallest rank among the
+     * component's descendants, taken over all out-edges in reverse topological order.
+     */
+    private void buildLabels(int[] order) {
+        low = new int[LABEL_COUNT][componentCount];
+        post = new int[LABEL_COUNT][componentCount];
+        pre = new int[LABEL_COUNT][componentCount];
+        int[] stack = new int[componentCount];
+        int[] cursor = new int[componentCount];
+        boolean[] visited = new boolean[componentCount];
+
+        for (int k = 0; k < LABEL_COUNT; k++) {
+            boolean backward = (k & 1) == 1;
+            Arrays.fill(visited, false);
+            int rank = 0;
+            int preRank = 0;
+            for (int i = 0; i < componentCount; i++) {
+                int root = backward ? componentCount - 1 - i : i;
+                if (visited[root]) {
+                    continue;
+                }
+                int depth = 0;
+                stack[0] = root;
+                cursor[0] = 0;
+                visited[root] = true;
+                pre[k][root] = preRank++;
+                while (depth >= 0) {
+                    int v = stack[depth];
+                    int degree = dag.edgeEnd(v) - dag.edgeStart(v);
+                    if (cursor[depth] < degree) {
+                        int j = cursor[depth]++;
+                        int e = backward ? dag.edgeEnd(v) - 1 - j : dag.edgeStart(v) + j;
+                        int w = dag.edgeTarget(e);
+                        if (!visited[w]) {
+                            visited[w] = true;
+                            pre[k][w] = preRank++;
+                            depth++;
+                            stack[depth] = w;
+                            cursor[depth] = 0;
+                            metrics.incrementDfsVisits();
+                        }
+                        continue;
+                    }
+                    post[k][v] = rank++;
+                    depth--;
+                }
+            }
+
+            for (int p = componentCount - 1; p >= 0; p--) {
+                int c = order[p];
+                int min = post[k][c];
+                for (int e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+                    min = Math.min(min, low[k][dag.edgeTarget(e)]);
+                }
+                low[k][c] = min;
+            }
+        }
+    }
+
+    /**
+     * Checks whether original vertex u reaches original vertex v (every vertex reaches itself).
+     * Task v transitively depends on task u exactly when u reaches v.
+     */
+    public boolean reaches(int u, int v) {
+        return componentReaches(vertexToComponent[u], vertexToComponent[v]);
+    }
+
+    /**
+     * Checks whether component a reaches component b in the condensation DAG.
+     */
+    public boolean componentReaches(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        if (position[a] > position[b]) {
+            return false;
+        }
+        if (closure != null) {
+            return (closure[a * words + (b >>> 6)] & (1L << b)) != 0;
+        }
+        if (!labelsContain(a, b)) {
+            return false;
+        }
+        if (treeDescendant(a, b)) {
+            return true;
+        }
+        return search(a, b);
+    }
+
+    /**
+     * Checks that every interval of b is nested in the matching interval of a.
+     */
+    private boolean labelsContain(int a, int b) {
+        for (int k = 0; k < LABEL_COUNT; k++) {
+            if (low[k][b] < low[k][a] || post[k][b] > post[k][a]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether b lies below a in one of the DFS trees, which proves a reaches b.
+     */
+    private boolean treeDescendant(int a, int b) {
+        for (int k = 0; k < LABEL_COUNT; k++) {
+            if (pre[k][a] <= pre[k][b] && post[k][b] <= post[k][a]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Depth-first search from a that skips components which cannot reach b by position or labels.
+     */
+    private boolean search(int a, int b) {
+        if (stack == null) {
+            stack = new int[componentCount];
+            visitStamp = new int[componentCount];
+        }
+        if (++epoch == 0) {
+            Arrays.fill(visitStamp, 0);
+            epoch = 1;
+        }
+        int limit = position[b];
+        int top = 0;
+        stack[top++] = a;
+        visitStamp[a] = epoch;
+        while (top > 0) {
+            int v = stack[--top];
+            for (int e = dag.edgeStart(v), end = dag.edgeEnd(v); e < end; e++) {
+                int w = dag.edgeTarget(e);
+                if (w == b) {
+                    return true;
+                }
+                if (position[w] < limit && visitStamp[w] != epoch && labelsContain(w, b)) {
+                    if (treeDescendant(w, b)) {
+                        return true;
+                    }
+                    visitStamp[w] = epoch;
+                    stack[top++] = w;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the index stores the full transitive closure.
+     */
+    public boolean isDense() {
+        return closure != null;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Gets the approximate memory used by the index arrays, excluding the DAG itself.
+     */
+    public long getSizeBytes() {
+        long bytes = 4L * position.length;
+        if (closure != null) {
+            bytes += 8L * closure.length;
+        } else {
+            bytes += 3L * 4 * LABEL_COUNT * componentCount;
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the build metrics; the time is the build time.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,104 @@
+package graph.scc;
+
+import graph.Graph;
+import java.util.Arrays;
+
+/**
+ * Builds the condensation graph from a component assignment; shared by the SCC engines.
+ *
+ * Vertices are bucketed by component with a counting sort, then each component's out-edges are
+ * deduplicated with a stamp array indexed by target component, so the build is linear in
+ * the number of edges and allocates no per-edge objects.
+ */
+class Condensation {
+
+    private Condensation() {
+    }
+
+    /**
+     * Builds the condensation graph, combining parallel inter-component edges with the given policy.
+     * Condensation edges of a component appear in the order their first edge is encountered.
+     * Under the "node" weight model each component's weight is the sum of its members' weights.
+     * The result gets its own copy of the component IDs, so writes to it leave the SCCResult intact.
+     */
+    static KosarajuSCC.CondensationResult build(Graph graph, SCCResult components, WeightAggregation policy) {
+        int n = graph.getN();
+        int[] componentId = components.componentIds();
+        int componentCount = components.getComponentCount();
+
+        // Members of each component, in increasing vertex order
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int v = 0; v < n; v++) {
+            memberOffsets[componentId[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[n];
+        int[] cursor = Arrays.copyOf(memberOffsets, componentCount);
+        for (int v = 0; v < n; v++) {
+            members[cursor[componentId[v]]++] = v;
+        }
+
+        // stamp[c] == compU + 1 means an edge compU -> c was already seen; slot[c] is its buffer index
+        int[] stamp = new int[componentCount];
+        int[] slot = new int[componentCount];
+        int[] targets = new int[Math.max(1, componentCount)];
+        long[] weights = new long[targets.length];
+        Graph.Builder condensation = new Graph.Builder(componentCount);
+
+        for (int compU = 0; compU < componentCount; compU++) {
+            int count = 0;
+            for (int i = memberOffsets[compU]; i < memberOffsets[compU + 1]; i++) {
+                int u = members[i];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int compV = componentId[graph.edgeTarget(e)];
+                    if (compV == compU) {
+                        continue;
+                    }
+                    int w = graph.edgeWeight(e);
+                    if (stamp[compV] != compU + 1) {
+                        stamp[compV] = compU + 1;
+                        slot[compV] = count;
+                        targets[count] = compV;
+                        weights[count] = w;
+                        count++;
+                    } else {
+                        int s = slot[compV];
+                        switch (policy) {
+                            case MIN:
+                                weights[s] = Math.min(weights[s], w);
+                                break;
+                            case MAX:
+                                weights[s] = Math.max(weights[s], w);
+                                break;
+                            case SUM:
+                                weights[s] += w;
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                }
+            }
+            for (int k = 0; k < count; k++) {
+                long w = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, weights[k]));
+                condensation.addEdge(compU, targets[k], (int) w);
+            }
+        }
+
+        Graph dag = condensation.build();
+        if (graph.hasNodeWeights()) {
+            long[] sums = new long[componentCount];
+            for (int v = 0; v < n; v++) {
+                sums[componentId[v]] += graph.getNodeWeight(v);
+            }
+            int[] nodeWeights = new int[componentCount];
+            for (int c = 0; c < componentCount; c++) {
+                nodeWeights[c] = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sums[c]));
+            }
+            dag.setNodeWeights(nodeWeights);
+        }
+        return new KosarajuSCC.CondensationResult(dag, components.copyComponentIds());
+    }
+}
@@ -0,0 +1,1191 @@
+package graph.scc;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+import java.util.*;
+
+/**
+ * Strongly connected components of a graph that changes by single edge insertions and deletions.
+ *
+ * Keeps its own dynamic copy of the graph (per-vertex edge lists, so updates do not rewrite CSR
+ * arrays), the component label of every vertex, the members of every component, and the
+ * condensation as per-component maps from neighbouring component to the number of edges between
+ * the two (outgoing maps also keep the edges' weight aggregates).
+ * The components also carry a topological order (sparse long keys, Pearce-Kelly style), which
+ * confines every search to the affected region:
+ * <ul>
+ *   <li>an insert between components that agrees with the order, or any insert inside a
+ *       component, costs O(1) plus one multiplicity update;</li>
+ *   <li>an insert from u's component to an earlier component v searches forward from v and back
+ *       from u, visiting only components ordered between them; if the searches meet, the edge
+ *       closed a cycle and the components on it are merged, otherwise the visited components
+ *       are reordered among their own keys;</li>
+ *   <li>a delete inside a component re-runs Tarjan's algorithm on that component's members
+ *       alone and, if it fell apart, gives the pieces keys inside the gap around the old one;</li>
+ *   <li>a delete between components only adjusts one multiplicity.</li>
+ * </ul>
+ *
+ * Component labels are stable between updates that do not touch a component, but unlike
+ * {@link SCCAlgorithm} they are not dense or topologically ordered; {@link #findComponents()}
+ * and {@link #buildCondensation} produce numbered snapshots from the maintained condensation,
+ * without another SCC pass.
+ */
+public class IncrementalSCC {
+    private final int n;
+    private final int[] nodeWeights;  // null under the "edge" weight model
+    private Metrics metrics;
+
+    // Dynamic adjacency: out[u] holds (target, weight) pairs, in[v] holds sources
+    private final IntList[] out;
+    private final IntList[] in;
+    private int edgeCount;
+
+    // Component labels; members/compOut/compIn are null for unused labels
+    private final int[] comp;
+    private final IntList[] members;
+    private final EdgeMap[] compOut;
+    private final EdgeMap[] compIn;
+    private final IntList freeLabels = new IntList();
+    private int componentCount;
+
+    // Topological key of every live label. Each label owns the key interval [key, keyLimit),
+    // disjoint from all others, so a component that splits can number its pieces inside it
+    private static final long KEY_GAP = 1L << 20;
+    private final long[] key;
+    private final long[] keyLimit;
+    // Live labels sorted by key; null after a merge, split or reorder until the next snapshot
+    private int[] labelsByKey;
+
+    // Component sets of the current update: label c is in the set when the stamp equals epoch
+    private final int[] reachedStamp;
+    private final int[] backStamp;
+    private final int[] mergeStamp;
+    private int epoch;
+    private final int[] labelStack;
+
+    // Scratch of the local Tarjan pass, valid where visitStamp == visitEpoch
+    private final int[] visitStamp;
+    private int visitEpoch;
+    private final int[] index;
+    private final int[] lowlink;
+    private final boolean[] onStack;
+    private final int[] callStack;
+    private final int[] edgeCursor;
+    private final int[] sccStack;
+
+    /**
+     * Copies the graph and computes its initial components with {@link TarjanSCC}.
+     */
+    public IncrementalSCC(Graph graph) {
+        this.n = graph.getN();
+        this.metrics = new CountingMetrics();
+        if (graph.hasNodeWeights()) {
+            nodeWeights = new int[n];
+            for (int v = 0; v < n; v++) {
+                nodeWeights[v] = graph.getNodeWeight(v);
+            }
+        } else {
+            nodeWeights = null;
+        }
+
+        out = new IntList[n];
+        in = new IntList[n];
+        for (int v = 0; v < n; v++) {
+            out[v] = new IntList();
+            in[v] = new IntList();
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                out[u].add(v);
+                out[u].add(graph.edgeWeight(e));
+                in[v].add(u);
+                edgeCount++;
+            }
+        }
+
+        comp = new int[n];
+        members = new IntList[n];
+        compOut = new EdgeMap[n];
+        compIn = new EdgeMap[n];
+        SCCResult initial = new TarjanSCC(graph).findComponents();
+        componentCount = initial.getComponentCount();
+        for (int c = 0; c < componentCount; c++) {
+            IntList list = new IntList();
+            for (int i = initial.memberStart(c); i < initial.memberEnd(c); i++) {
+                int v = initial.member(i);
+                list.add(v);
+                comp[v] = c;
+            }
+            members[c] = list;
+            compOut[c] = new EdgeMap(true);
+            compIn[c] = new EdgeMap(false);
+        }
+        for (int c = n - 1; c >= componentCount; c--) {
+            freeLabels.add(c);
+        }
+        for (int u = 0; u < n; u++) {
+            for (int j = 0; j < out[u].size(); j += 2) {
+                int cu = comp[u];
+                int cv = comp[out[u].get(j)];
+                if (cu != cv) {
+                    increment(cu, cv, u, out[u].get(j + 1));
+                }
+            }
+        }
+
+        // Keys follow a breadth-first (Kahn) order, which keeps the windows searched by
+        // later inserts narrower than Tarjan's depth-first numbering would
+        key = new long[n];
+        keyLimit = new long[n];
+        int[] order = topologicalLabels();
+        for (int i = 0; i < componentCount; i++) {
+            assignKey(order[i], i * KEY_GAP, (i + 1) * KEY_GAP);
+        }
+        labelsByKey = order;
+        reachedStamp = new int[n];
+        backStamp = new int[n];
+        mergeStamp = new int[n];
+        labelStack = new int[n];
+        visitStamp = new int[n];
+        index = new int[n];
+        lowlink = new int[n];
+        onStack = new boolean[n];
+        callStack = new int[n];
+        edgeCursor = new int[n];
+        sccStack = new int[n];
+    }
+
+    /**
+     * Inserts an edge. If it closes a cycle through other components, all components on a
+     * path from v's component back to u's are merged into one; if it contradicts the
+     * topological order without closing a cycle, the affected components are reordered.
+     */
+    public void addEdge(int u, int v, int w) {
+        checkVertex(u);
+        checkVertex(v);
+        metrics.reset();
+        metrics.start();
+
+        out[u].add(v);
+        out[u].add(w);
+        in[v].add(u);
+        edgeCount++;
+
+        int cu = comp[u];
+        int cv = comp[v];
+        if (cu != cv) {
+            increment(cu, cv, u, w);
+            if (key[cu] > key[cv]) {
+                restoreOrder(cu, cv);
+            }
+        }
+        metrics.stop();
+    }
+
+    /**
+     * Removes one edge from u to v. A component that loses an internal edge is re-decomposed.
+     *
+     * @return true if an edge was removed
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        metrics.reset();
+        metrics.start();
+
+        IntList edges = out[u];
+        int position = -1;
+        for (int j = 0; j < edges.size(); j += 2) {
+            if (edges.get(j) == v) {
+                position = j;
+                break;
+            }
+        }
+        if (position < 0) {
+            metrics.stop();
+            return false;
+        }
+        int w = edges.get(position + 1);
+        // removePair moves u's last out-edge into the gap, which can change which edge counts as first
+        int moved = position + 2 < edges.size() ? edges.get(edges.size() - 2) : -1;
+        edges.removePair(position);
+        in[v].removeValue(u);
+        edgeCount--;
+
+        int cu = comp[u];
+        int cv = comp[v];
+        if (cu != cv) {
+            decrement(cu, cv, u, w);
+        } else {
+            split(cu);
+        }
+        if (moved >= 0 && comp[moved] != comp[u]) {
+            compOut[comp[u]].markStaleIfFirst(comp[moved], u);
+        }
+        metrics.stop();
+        return true;
+    }
+
+    /**
+     * Handles a new condensation edge cu -> cv with key[cu] > key[cv]. Searches forward from cv
+     * through keys up to key[cu] and backward from cu through keys down to key[cv]. Components
+     * found by both searches lie on a cycle through the new edge and are merged. The found
+     * components then take the sorted pool of their old key intervals: backward ones first, then
+     * the merged component, then forward ones, each group keeping its relative order.
+     */
+    private void restoreOrder(int cu, int cv) {
+        labelsByKey = null;
+        nextEpoch();
+        IntList forward = search(cv, key[cu], true);
+        IntList backward = search(cu, key[cv], false);
+
+        long[] pool = new long[forward.size() + backward.size()];
+        long[] poolLimit = new long[pool.length];
+        int poolSize = 0;
+        IntList merged = new IntList();
+        IntList before = new IntList();
+        IntList after = new IntList();
+        for (int i = 0; i < backward.size(); i++) {
+            int c = backward.get(i);
+            poolLimit[poolSize] = keyLimit[c];
+            pool[poolSize++] = key[c];
+            if (reachedStamp[c] == epoch) {
+                mergeStamp[c] = epoch;
+                merged.add(c);
+            } else {
+                before.add(c);
+            }
+        }
+        for (int i = 0; i < forward.size(); i++) {
+            int c = forward.get(i);
+            if (backStamp[c] != epoch) {
+                poolLimit[poolSize] = keyLimit[c];
+                pool[poolSize++] = key[c];
+                after.add(c);
+            }
+        }
+        // Intervals are disjoint, so sorting keys and limits separately keeps them paired
+        Arrays.sort(pool, 0, poolSize);
+        Arrays.sort(poolLimit, 0, poolSize);
+        sortByKey(before.values, before.size());
+        sortByKey(after.values, after.size());
+
+        int slot = 0;
+        for (int i = 0; i < before.size(); i++) {
+            assignKey(before.get(i), pool[slot], poolLimit[slot]);
+            slot++;
+        }
+        if (merged.size() > 0) {
+            assignKey(merge(merged), pool[slot], poolLimit[slot]);
+        }
+        slot = poolSize - after.size();
+        for (int i = 0; i < after.size(); i++) {
+            assignKey(after.get(i), pool[slot], poolLimit[slot]);
+            slot++;
+        }
+    }
+
+    private void assignKey(int c, long value, long limit) {
+        key[c] = value;
+        keyLimit[c] = limit;
+    }
+
+    /**
+     * Collects the components reachable from start (forward) or reaching it (backward) whose keys
+     * stay within bound, marking them in reachedStamp or backStamp.
+     */
+    private IntList search(int start, long bound, boolean forward) {
+        int[] stamp = forward ? reachedStamp : backStamp;
+        IntList found = new IntList();
+        int top = 0;
+        labelStack[top++] = start;
+        stamp[start] = epoch;
+        while (top > 0) {
+            int c = labelStack[--top];
+            found.add(c);
+            metrics.incrementDfsVisits();
+            EdgeMap edges = forward ? compOut[c] : compIn[c];
+            for (int slot = 0; slot < edges.capacity(); slot++) {
+                int d = edges.key(slot);
+                if (d == EdgeMap.EMPTY) {
+                    continue;
+                }
+                metrics.incrementEdgesTraversed();
+                boolean inWindow = forward ? key[d] <= bound : key[d] >= bound;
+                if (inWindow && stamp[d] != epoch) {
+                    stamp[d] = epoch;
+                    labelStack[top++] = d;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Sorts labels[0, count) by key with a bottom-up merge sort on the primitive array.
+     */
+    private void sortByKey(int[] labels, int count) {
+        int[] from = labels;
+        int[] to = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count; low += 2 * width) {
+                int mid = Math.min(low + width, count);
+                int high = Math.min(low + 2 * width, count);
+                int i = low, j = mid, k = low;
+                while (i < mid && j < high) {
+                    to[k++] = key[from[j]] < key[from[i]] ? from[j++] : from[i++];
+                }
+                while (i < mid) {
+                    to[k++] = from[i++];
+                }
+                while (j < high) {
+                    to[k++] = from[j++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != labels) {
+            System.arraycopy(from, 0, labels, 0, count);
+        }
+    }
+
+    /**
+     * Merges the components of a set (marked in mergeStamp) into its largest member.
+     *
+     * @return the label of the merged component
+     */
+    private int merge(IntList set) {
+        int survivor = set.get(0);
+        for (int i = 1; i < set.size(); i++) {
+            if (members[set.get(i)].size() > members[survivor].size()) {
+                survivor = set.get(i);
+            }
+        }
+
+        EdgeMap newOut = new EdgeMap(true);
+        EdgeMap newIn = new EdgeMap(false);
+        for (int i = 0; i < set.size(); i++) {
+            int c = set.get(i);
+            EdgeMap targets = compOut[c];
+            for (int slot = 0; slot < targets.capacity(); slot++) {
+                int d = targets.key(slot);
+                if (d != EdgeMap.EMPTY && mergeStamp[d] != epoch) {
+                    newOut.combine(d, targets, slot);
+                    compIn[d].remove(c);
+                }
+            }
+            EdgeMap sources = compIn[c];
+            for (int slot = 0; slot < sources.capacity(); slot++) {
+                int d = sources.key(slot);
+                if (d != EdgeMap.EMPTY && mergeStamp[d] != epoch) {
+                    newIn.add(d, sources.count(slot));
+                    if (c != survivor) {
+                        compOut[d].rename(c, survivor);
+                    }
+                }
+            }
+            if (c != survivor) {
+                IntList moved = members[c];
+                for (int k = 0; k < moved.size(); k++) {
+                    int v = moved.get(k);
+                    comp[v] = survivor;
+                    members[survivor].add(v);
+                }
+                releaseLabel(c);
+            }
+        }
+        for (int slot = 0; slot < newOut.capacity(); slot++) {
+            int d = newOut.key(slot);
+            if (d != EdgeMap.EMPTY) {
+                compIn[d].add(survivor, newOut.count(slot));
+            }
+        }
+        compOut[survivor] = newOut;
+        compIn[survivor] = newIn;
+        return survivor;
+    }
+
+    /**
+     * Re-runs Tarjan's algorithm on the members of component c, following only edges inside c,
+     * and splits c if it is no longer strongly connected.
+     */
+    private void split(int c) {
+        IntList oldMembers = members[c];
+        IntList pieceMembers = new IntList();
+        IntList pieceEnds = new IntList();
+        if (++visitEpoch == 0) {
+            Arrays.fill(visitStamp, 0);
+            visitEpoch = 1;
+        }
+        int nextIndex = 1;
+        int sccTop = 0;
+
+        for (int r = 0; r < oldMembers.size(); r++) {
+            int root = oldMembers.get(r);
+            if (visitStamp[root] == visitEpoch) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = root;
+            edgeCursor[0] = 0;
+            visitStamp[root] = visitEpoch;
+            index[root] = lowlink[root] = nextIndex++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            metrics.incrementDfsVisits();
+
+            while (depth >= 0) {
+                int v = callStack[depth];
+                IntList edges = out[v];
+                if (edgeCursor[depth] < edges.size()) {
+                    int w = edges.get(edgeCursor[depth]);
+                    edgeCursor[depth] += 2;
+                    if (comp[w] != c) {
+                        continue;
+                    }
+                    metrics.incrementEdgesTraversed();
+                    if (visitStamp[w] != visitEpoch) {
+                        visitStamp[w] = visitEpoch;
+                        index[w] = lowlink[w] = nextIndex++;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        metrics.incrementDfsVisits();
+                        depth++;
+                        callStack[depth] = w;
+                        edgeCursor[depth] = 0;
+                    } else if (onStack[w] && index[w] < lowlink[v]) {
+                        lowlink[v] = index[w];
+                    }
+                    continue;
+                }
+
+                if (lowlink[v] == index[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        pieceMembers.add(w);
+                    } while (w != v);
+                    pieceEnds.add(pieceMembers.size());
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callStack[depth];
+                    if (lowlink[v] < lowlink[parent]) {
+                        lowlink[parent] = lowlink[v];
+                    }
+                }
+            }
+        }
+
+        int pieceCount = pieceEnds.size();
+        if (pieceCount == 1) {
+            return;
+        }
+        // renumberKeys below keeps the order, so the cached one is still valid until the pieces exist
+
+        // Pieces complete in reverse topological order and share c's key interval
+        if (keyLimit[c] - key[c] < pieceCount) {
+            renumberKeys(Math.max(KEY_GAP, pieceCount));
+        }
+        long low = key[c];
+        long limit = keyLimit[c];
+        long step = (limit - low) / pieceCount;
+
+        // Detach c from its neighbours; the edges are re-added below with the new labels
+        EdgeMap targets = compOut[c];
+        for (int slot = 0; slot < targets.capacity(); slot++) {
+            if (targets.key(slot) != EdgeMap.EMPTY) {
+                compIn[targets.key(slot)].remove(c);
+            }
+        }
+        EdgeMap sources = compIn[c];
+        for (int slot = 0; slot < sources.capacity(); slot++) {
+            if (sources.key(slot) != EdgeMap.EMPTY) {
+                compOut[sources.key(slot)].remove(c);
+            }
+        }
+        compOut[c] = new EdgeMap(true);
+        compIn[c] = new EdgeMap(false);
+
+        // The first piece keeps label c; all pieces are marked so external sources can be told apart
+        nextEpoch();
+        int start = 0;
+        for (int p = 0; p < pieceEnds.size(); p++) {
+            int label = p == 0 ? c : acquireLabel();
+            IntList list = new IntList();
+            for (int i = start; i < pieceEnds.get(p); i++) {
+                int v = pieceMembers.get(i);
+                comp[v] = label;
+                list.add(v);
+            }
+            members[label] = list;
+            mergeStamp[label] = epoch;
+            int rank = pieceCount - 1 - p;
+            assignKey(label, low + step * rank, rank == pieceCount - 1 ? limit : low + step * (rank + 1));
+            start = pieceEnds.get(p);
+        }
+        labelsByKey = null;
+
+        for (int i = 0; i < pieceMembers.size(); i++) {
+            int x = pieceMembers.get(i);
+            int cx = comp[x];
+            IntList edges = out[x];
+            for (int j = 0; j < edges.size(); j += 2) {
+                int cy = comp[edges.get(j)];
+                if (cy != cx) {
+                    increment(cx, cy, x, edges.get(j + 1));
+                }
+            }
+            // in[] has no weights: the entries are counted now and aggregated on the next build
+            IntList edgeSources = in[x];
+            for (int j = 0; j < edgeSources.size(); j++) {
+                int cy = comp[edgeSources.get(j)];
+                if (mergeStamp[cy] != epoch) {
+                    compOut[cy].addUnweighted(cx);
+                    compIn[cx].add(cy, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spaces all keys gap apart again, keeping their order. Needed only when repeated splits
+     * have used up the key interval of a component.
+     */
+    private void renumberKeys(long gap) {
+        int[] live = sortedLabels();
+        for (int i = 0; i < live.length; i++) {
+            assignKey(live[i], i * gap, (i + 1) * gap);
+        }
+    }
+
+    private void increment(int from, int to, int source, int weight) {
+        compOut[from].addEdge(to, source, weight);
+        compIn[to].add(from, 1);
+    }
+
+    private void decrement(int from, int to, int source, int weight) {
+        compOut[from].removeEdge(to, source, weight);
+        compIn[to].add(from, -1);
+    }
+
+    private int acquireLabel() {
+        int label = freeLabels.removeLast();
+        compOut[label] = new EdgeMap(true);
+        compIn[label] = new EdgeMap(false);
+        componentCount++;
+        return label;
+    }
+
+    private void releaseLabel(int label) {
+        members[label] = null;
+        compOut[label] = null;
+        compIn[label] = null;
+        freeLabels.add(label);
+        componentCount--;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(backStamp, 0);
+            Arrays.fill(mergeStamp, 0);
+            epoch = 1;
+        }
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " out of range for " + n + " vertices");
+        }
+    }
+
+    /**
+     * Gets the current component label of a vertex. Labels are below n but not dense.
+     */
+    public int getComponentLabel(int v) {
+        return comp[v];
+    }
+
+    /**
+     * Checks whether two vertices are in the same strongly connected component.
+     */
+    public boolean isSameComponent(int u, int v) {
+        return comp[u] == comp[v];
+    }
+
+    /**
+     * Gets the number of components.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Gets the number of edges of the maintained graph.
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Gets the number of distinct condensation edges.
+     */
+    public int getCondensationEdgeCount() {
+        int count = 0;
+        for (EdgeMap edges : compOut) {
+            if (edges != null) {
+                count += edges.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Numbers the current components in topological order, as the static SCC engines do.
+     * Costs O(n), plus sorting the labels by key after a merge, split or reorder.
+     */
+    public SCCResult findComponents() {
+        int[] order = sortedLabels();
+        int[] componentId = new int[n];
+        int[] offsets = new int[componentCount + 1];
+        int[] memberArray = new int[n];
+        int k = 0;
+        for (int id = 0; id < componentCount; id++) {
+            IntList list = members[order[id]];
+            for (int i = 0; i < list.size(); i++) {
+                int v = list.get(i);
+                componentId[v] = id;
+                memberArray[k++] = v;
+            }
+            offsets[id + 1] = k;
+        }
+        return new SCCResult(componentId, offsets, memberArray);
+    }
+
+    /**
+     * Gets the live labels in key order, which is topological. The array is cached until the
+     * next structural change and must not be modified.
+     */
+    private int[] sortedLabels() {
+        if (labelsByKey == null) {
+            int[] live = new int[componentCount];
+            int count = 0;
+            for (int c = 0; c < n; c++) {
+                if (members[c] != null) {
+                    live[count++] = c;
+                }
+            }
+            sortByKey(live, count);
+            labelsByKey = live;
+        }
+        return labelsByKey;
+    }
+
+    /**
+     * Orders the live labels with Kahn's algorithm over the condensation; used for the initial keys.
+     */
+    private int[] topologicalLabels() {
+        int[] inDegree = new int[n];
+        int[] order = new int[componentCount];
+        int tail = 0;
+        for (int c = 0; c < n; c++) {
+            if (members[c] != null) {
+                inDegree[c] = compIn[c].size();
+                if (inDegree[c] == 0) {
+                    order[tail++] = c;
+                }
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            EdgeMap edges = compOut[order[head]];
+            for (int slot = 0; slot < edges.capacity(); slot++) {
+                int d = edges.key(slot);
+                if (d != EdgeMap.EMPTY && --inDegree[d] == 0) {
+                    order[tail++] = d;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Materializes the maintained graph in CSR form.
+     */
+    public Graph toGraph() {
+        Graph.Builder builder = new Graph.Builder(n, edgeCount);
+        for (int u = 0; u < n; u++) {
+            IntList edges = out[u];
+            for (int j = 0; j < edges.size(); j += 2) {
+                builder.addEdge(u, edges.get(j), edges.get(j + 1));
+            }
+        }
+        Graph graph = builder.build();
+        if (nodeWeights != null) {
+            graph.setNodeWeights(nodeWeights.clone());
+        }
+        return graph;
+    }
+
+    /**
+     * Builds the condensation of the current graph, keeping the first weight of parallel edges.
+     */
+    public KosarajuSCC.CondensationResult buildCondensation() {
+        return buildCondensation(WeightAggregation.FIRST);
+    }
+
+    /**
+     * Builds the condensation of the current graph with components numbered as in {@link #findComponents()}.
+     * The edges come from the maintained component maps, so this costs O(n + condensation edges)
+     * plus one scan of the out-edges of components whose weight aggregates went stale (after a
+     * split, or after removing a minimum, maximum or first edge). Edges of a component are listed
+     * by target; {@link WeightAggregation#FIRST} picks the lowest source vertex's first edge.
+     *
+     * @param policy how weights of parallel edges between two components are combined
+     */
+    public KosarajuSCC.CondensationResult buildCondensation(WeightAggregation policy) {
+        int[] order = sortedLabels();
+        int[] id = new int[n];
+        for (int i = 0; i < componentCount; i++) {
+            id[order[i]] = i;
+        }
+        int[] componentId = new int[n];
+        for (int v = 0; v < n; v++) {
+            componentId[v] = id[comp[v]];
+        }
+
+        Graph.Builder builder = new Graph.Builder(componentCount, getCondensationEdgeCount());
+        long[] edges = new long[4];
+        for (int i = 0; i < componentCount; i++) {
+            int c = order[i];
+            refreshWeights(c);
+            EdgeMap targets = compOut[c];
+            if (edges.length < targets.size()) {
+                edges = new long[targets.size()];
+            }
+            int count = 0;
+            for (int slot = 0; slot < targets.capacity(); slot++) {
+                int d = targets.key(slot);
+                if (d != EdgeMap.EMPTY) {
+                    edges[count++] = (long) id[d] << 32 | (targets.weight(slot, policy) & 0xFFFFFFFFL);
+                }
+            }
+            Arrays.sort(edges, 0, count);
+            for (int k = 0; k < count; k++) {
+                builder.addEdge(i, (int) (edges[k] >>> 32), (int) edges[k]);
+            }
+        }
+
+        Graph dag = builder.build();
+        if (nodeWeights != null) {
+            long[] sums = new long[componentCount];
+            for (int v = 0; v < n; v++) {
+                sums[componentId[v]] += nodeWeights[v];
+            }
+            int[] weights = new int[componentCount];
+            for (int c = 0; c < componentCount; c++) {
+                weights[c] = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sums[c]));
+            }
+            dag.setNodeWeights(weights);
+        }
+        return new KosarajuSCC.CondensationResult(dag, componentId);
+    }
+
+    /**
+     * Recomputes the stale weight aggregates of c's outgoing condensation edges from its members' out-edges.
+     */
+    private void refreshWeights(int c) {
+        EdgeMap targets = compOut[c];
+        if (!targets.resetStale()) {
+            return;
+        }
+        IntList list = members[c];
+        for (int i = 0; i < list.size(); i++) {
+            int x = list.get(i);
+            IntList edges = out[x];
+            for (int j = 0; j < edges.size(); j += 2) {
+                int d = comp[edges.get(j)];
+                if (d != c) {
+                    targets.accumulateStale(d, x, edges.get(j + 1));
+                }
+            }
+        }
+        targets.clearStale();
+    }
+
+    /**
+     * Gets the metrics of the last update.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Map from neighbouring component label to the edges between the two components: their
+     * count and, in a weighted map, their weight sum, minimum, maximum and first edge (lowest
+     * source vertex). Entries are records in one int array with linear probing and
+     * backward-shift deletion, so updates neither box nor leave tombstones.
+     *
+     * Removing an edge cannot always restore the minimum, maximum or first edge; the entry is
+     * then marked stale and recomputed by {@link #refreshWeights} before the next build.
+     */
+    private static final class EdgeMap {
+        static final int EMPTY = -1;
+        private static final int KEY = 0;
+        private static final int COUNT = 1;
+        private static final int MIN = 2;
+        private static final int MAX = 3;
+        private static final int FIRST_SOURCE = 4;
+        private static final int FIRST_WEIGHT = 5;
+        private static final int STALE = 6;
+        private static final int WEIGHTED_STRIDE = 7;
+        private static final int COUNT_STRIDE = 2;
+
+        private final int stride;
+        private int[] table;
+        private long[] sums;  // null unless weighted
+        private int size;
+
+        EdgeMap(boolean weighted) {
+            stride = weighted ? WEIGHTED_STRIDE : COUNT_STRIDE;
+            allocate(4);
+        }
+
+        private void allocate(int capacity) {
+            table = new int[capacity * stride];
+            for (int slot = 0; slot < capacity; slot++) {
+                table[slot * stride + KEY] = EMPTY;
+            }
+            sums = stride == WEIGHTED_STRIDE ? new long[capacity] : null;
+        }
+
+        int capacity() {
+            return table.length / stride;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Gets the label stored in a slot, or {@link #EMPTY}.
+         */
+        int key(int slot) {
+            return table[slot * stride + KEY];
+        }
+
+        int count(int slot) {
+            return table[slot * stride + COUNT];
+        }
+
+        int weight(int slot, WeightAggregation policy) {
+            int base = slot * stride;
+            switch (policy) {
+                case MIN:
+                    return table[base + MIN];
+                case MAX:
+                    return table[base + MAX];
+                case SUM:
+                    return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sums[slot]));
+                default:
+                    return table[base + FIRST_WEIGHT];
+            }
+        }
+
+        private static int hash(int label) {
+            int h = label * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private int find(int label) {
+            int mask = capacity() - 1;
+            for (int slot = hash(label) & mask; ; slot = (slot + 1) & mask) {
+                int k = table[slot * stride + KEY];
+                if (k == label) {
+                    return slot;
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Gets the slot of label, adding an entry without edges if there is none.
+         */
+        private int slotOf(int label) {
+            int slot = find(label);
+            if (slot >= 0) {
+                return slot;
+            }
+            if ((size + 1) * 4 > capacity() * 3) {
+                rehash(capacity() * 2);
+            }
+            slot = freeSlot(label);
+            int base = slot * stride;
+            table[base + KEY] = label;
+            table[base + COUNT] = 0;
+            if (sums != null) {
+                resetWeights(slot);
+            }
+            size++;
+            return slot;
+        }
+
+        private int freeSlot(int label) {
+            int mask = capacity() - 1;
+            int slot = hash(label) & mask;
+            while (table[slot * stride + KEY] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldTable = table;
+            long[] oldSums = sums;
+            allocate(capacity);
+            for (int old = 0; old < oldTable.length / stride; old++) {
+                int label = oldTable[old * stride + KEY];
+                if (label != EMPTY) {
+                    int slot = freeSlot(label);
+                    System.arraycopy(oldTable, old * stride, table, slot * stride, stride);
+                    if (sums != null) {
+                        sums[slot] = oldSums[old];
+                    }
+                }
+            }
+        }
+
+        private void resetWeights(int slot) {
+            int base = slot * stride;
+            table[base + MIN] = Integer.MAX_VALUE;
+            table[base + MAX] = Integer.MIN_VALUE;
+            table[base + FIRST_SOURCE] = Integer.MAX_VALUE;
+            table[base + FIRST_WEIGHT] = 0;
+            sums[slot] = 0;
+        }
+
+        private void accumulate(int slot, int source, int weight) {
+            int base = slot * stride;
+            sums[slot] += weight;
+            table[base + MIN] = Math.min(table[base + MIN], weight);
+            table[base + MAX] = Math.max(table[base + MAX], weight);
+            // Edges of one source arrive in adjacency order, so only a lower source replaces the first edge
+            if (source < table[base + FIRST_SOURCE]) {
+                table[base + FIRST_SOURCE] = source;
+                table[base + FIRST_WEIGHT] = weight;
+            }
+        }
+
+        /**
+         * Adds count edges to label in a count-only map, dropping the entry when none are left.
+         */
+        void add(int label, int count) {
+            int slot = slotOf(label);
+            table[slot * stride + COUNT] += count;
+            if (table[slot * stride + COUNT] == 0) {
+                removeSlot(slot);
+            }
+        }
+
+        /**
+         * Adds one weighted edge from source to label.
+         */
+        void addEdge(int label, int source, int weight) {
+            int slot = slotOf(label);
+            table[slot * stride + COUNT]++;
+            accumulate(slot, source, weight);
+        }
+
+        /**
+         * Adds one edge whose weight is not at hand; the entry's aggregates go stale.
+         */
+        void addUnweighted(int label) {
+            int slot = slotOf(label);
+            table[slot * stride + COUNT]++;
+            table[slot * stride + STALE] = 1;
+        }
+
+        /**
+         * Removes one weighted edge from source to label.
+         */
+        void removeEdge(int label, int source, int weight) {
+            int slot = find(label);
+            if (slot < 0) {
+                return;
+            }
+            int base = slot * stride;
+            if (--table[base + COUNT] == 0) {
+                removeSlot(slot);
+                return;
+            }
+            sums[slot] -= weight;
+            if (weight == table[base + MIN] || weight == table[base + MAX] || source == table[base + FIRST_SOURCE]) {
+                table[base + STALE] = 1;
+            }
+        }
+
+        void markStaleIfFirst(int label, int source) {
+            int slot = find(label);
+            if (slot >= 0 && table[slot * stride + FIRST_SOURCE] == source) {
+                table[slot * stride + STALE] = 1;
+            }
+        }
+
+        /**
+         * Adds the edges of other's entry in otherSlot to the entry of label.
+         */
+        void combine(int label, EdgeMap other, int otherSlot) {
+            int from = otherSlot * other.stride;
+            combine(label, other.table[from + COUNT], other.sums[otherSlot], other.table[from + MIN],
+                    other.table[from + MAX], other.table[from + FIRST_SOURCE], other.table[from + FIRST_WEIGHT],
+                    other.table[from + STALE]);
+        }
+
+        private void combine(int label, int count, long sum, int min, int max, int firstSource, int firstWeight,
+                             int stale) {
+            int slot = slotOf(label);
+            int base = slot * stride;
+            table[base + COUNT] += count;
+            sums[slot] += sum;
+            table[base + MIN] = Math.min(table[base + MIN], min);
+            table[base + MAX] = Math.max(table[base + MAX], max);
+            if (firstSource < table[base + FIRST_SOURCE]) {
+                table[base + FIRST_SOURCE] = firstSource;
+                table[base + FIRST_WEIGHT] = firstWeight;
+            } else if (firstSource == table[base + FIRST_SOURCE]) {
+                // Both first edges leave the same vertex; only its adjacency order can tell which is first
+                stale = 1;
+            }
+            table[base + STALE] |= stale;
+        }
+
+        /**
+         * Moves the edges to label from into the entry of label to.
+         */
+        void rename(int from, int to) {
+            int slot = find(from);
+            if (slot < 0) {
+                return;
+            }
+            int base = slot * stride;
+            int count = table[base + COUNT];
+            long sum = sums[slot];
+            int min = table[base + MIN];
+            int max = table[base + MAX];
+            int firstSource = table[base + FIRST_SOURCE];
+            int firstWeight = table[base + FIRST_WEIGHT];
+            int stale = table[base + STALE];
+            removeSlot(slot);
+            combine(to, count, sum, min, max, firstSource, firstWeight, stale);
+        }
+
+        void remove(int label) {
+            int slot = find(label);
+            if (slot >= 0) {
+                removeSlot(slot);
+            }
+        }
+
+        private void removeSlot(int slot) {
+            int mask = capacity() - 1;
+            int hole = slot;
+            for (int next = (slot + 1) & mask; table[next * stride + KEY] != EMPTY; next = (next + 1) & mask) {
+                // An entry may fill the hole if the hole lies between its home slot and its current slot
+                int home = hash(table[next * stride + KEY]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    System.arraycopy(table, next * stride, table, hole * stride, stride);
+                    if (sums != null) {
+                        sums[hole] = sums[next];
+                    }
+                    hole = next;
+                }
+            }
+            table[hole * stride + KEY] = EMPTY;
+            size--;
+        }
+
+        /**
+         * Resets the aggregates of all stale entries for recomputation.
+         *
+         * @return true if any entry is stale
+         */
+        boolean resetStale() {
+            boolean any = false;
+            for (int slot = 0; slot < capacity(); slot++) {
+                if (table[slot * stride + KEY] != EMPTY && table[slot * stride + STALE] != 0) {
+                    resetWeights(slot);
+                    any = true;
+                }
+            }
+            return any;
+        }
+
+        void accumulateStale(int label, int source, int weight) {
+            int slot = find(label);
+            if (table[slot * stride + STALE] != 0) {
+                accumulate(slot, source, weight);
+            }
+        }
+
+        void clearStale() {
+            for (int slot = 0; slot < capacity(); slot++) {
+                table[slot * stride + STALE] = 0;
+            }
+        }
+    }
+
+    /**
+     * Growable int array.
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        /**
+         * Removes the pair at i, i + 1 by moving the last pair into its place.
+         */
+        void removePair(int i) {
+            values[i] = values[size - 2];
+            values[i + 1] = values[size - 1];
+            size -= 2;
+        }
+
+        /**
+         * Removes one occurrence of value by moving the last element into its place.
+         */
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,167 +1,122 @@
 package graph.scc;
 
+import graph.CountingMetrics;
 import graph.Graph;
+import graph.IterativeDFS;
 import graph.Metrics;
+import graph.NoOpMetrics;
 import java.util.*;
 
 /**
  * Implementation of Kosaraju's algorithm for finding Strongly Connected Components (SCC).
  * Also builds the condensation graph (DAG of components).
  */
-public class KosarajuSCC {
+public class KosarajuSCC implements SCCAlgorithm {
     private final Graph graph;
     private Metrics metrics;
-    private boolean[] visited;
-    private int[] componentId;
-    private int componentCount;
-    private List<List<Integer>> components;
-    private List<Integer> finishOrder;
+    private SCCResult result;
 
     public KosarajuSCC(Graph graph) {
+        this(graph, new CountingMetrics());
+    }
+
+    /**
+     * Creates an instance that reports to the given metrics; pass
+     * {@link NoOpMetrics#INSTANCE} to run without counting.
+     */
+    public KosarajuSCC(Graph graph, Metrics metrics) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.metrics = metrics;
     }
 
     /**
      * Finds all strongly connected components.
-     * 
-     * @return list of SCCs, each SCC is a list of vertex IDs
+     * Components are discovered in topological order; the second pass writes their
+     * members contiguously, so the result needs no regrouping.
+     *
+     * @return component IDs and members in primitive arrays
      */
-    public List<List<Integer>> findSCCs() {
+    @Override
+    public SCCResult findComponents() {
         metrics.reset();
         metrics.start();
 
         int n = graph.getN();
-        visited = new boolean[n];
-        componentId = new int[n];
-        componentCount = 0;
-        components = new ArrayList<>();
-        finishOrder = new ArrayList<>();
+        int[] componentId = new int[n];
+        int[] offsets = new int[n + 1];
+        int[] members = new int[n];
+        int componentCount = 0;
 
         // Step 1: First DFS to determine finish order
+        IterativeDFS forward = new IterativeDFS(graph, false, metrics);
         for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                dfs1(i);
+            if (!forward.isVisited(i)) {
+                forward.visit(i, false);
             }
         }
 
-        // Step 2: Reverse graph
-        Graph transposed = graph.transpose();
-
-        // Step 3: Second DFS in reverse finish order
-        Arrays.fill(visited, false);
-        Collections.reverse(finishOrder);
-
-        for (int v : finishOrder) {
-            if (!visited[v]) {
-                List<Integer> component = new ArrayList<>();
-                dfs2(transposed, v, component);
-                components.add(component);
-                for (int u : component) {
+        // Step 2: Second DFS over in-edges (the graph's cached reverse index) in reverse finish order
+        IterativeDFS backward = new IterativeDFS(graph, true, metrics);
+        for (int k = forward.getPostorderCount() - 1; k >= 0; k--) {
+            int v = forward.getPostorder(k);
+            if (!backward.isVisited(v)) {
+                int first = backward.getPreorderCount();
+                backward.visit(v, false);
+                for (int i = first; i < backward.getPreorderCount(); i++) {
+                    int u = backward.getPreorder(i);
+                    members[i] = u;
                     componentId[u] = componentCount;
                 }
                 componentCount++;
+                offsets[componentCount] = backward.getPreorderCount();
             }
         }
 
+        result = new SCCResult(componentId, Arrays.copyOf(offsets, componentCount + 1), members);
         metrics.stop();
-        return new ArrayList<>(components);
-    }
-
-    /**
-     * First DFS pass to compute finish times.
-     */
-    private void dfs1(int v) {
-        visited[v] = true;
-        metrics.incrementDfsVisits();
-
-        for (Graph.Edge e : graph.getAdjacent(v)) {
-            metrics.incrementEdgesTraversed();
-            if (!visited[e.to]) {
-                dfs1(e.to);
-            }
-        }
-
-        finishOrder.add(v);
-    }
-
-    /**
-     * Second DFS pass on transposed graph to find components.
-     */
-    private void dfs2(Graph transposed, int v, List<Integer> component) {
-        visited[v] = true;
-        metrics.incrementDfsVisits();
-        component.add(v);
-
-        for (Graph.Edge e : transposed.getAdjacent(v)) {
-            metrics.incrementEdgesTraversed();
-            if (!visited[e.to]) {
-                dfs2(transposed, e.to, component);
-            }
-        }
+        return result;
     }
 
     /**
      * Builds the condensation graph (DAG where each node is an SCC).
-     * 
+     *
+     * @param policy how weights of parallel edges between two components are combined
      * @return condensation graph and mapping from original vertices to component IDs
      */
-    public CondensationResult buildCondensation() {
-        if (components == null) {
-            findSCCs();
-        }
-
-        // Create mapping: component ID -> new vertex ID in condensation graph
-        Map<Integer, Integer> componentToVertex = new HashMap<>();
-        for (int i = 0; i < componentCount; i++) {
-            componentToVertex.put(i, i);
+    @Override
+    public CondensationResult buildCondensation(WeightAggregation policy) {
+        if (result == null) {
+            findComponents();
         }
-
-        // Build condensation graph
-        Graph condensation = new Graph(componentCount);
-        Set<String> seenEdges = new HashSet<>();
-
-        for (int u = 0; u < graph.getN(); u++) {
-            int compU = componentId[u];
-            for (Graph.Edge e : graph.getAdjacent(u)) {
-                int compV = componentId[e.to];
-                if (compU != compV) {
-                    String edgeKey = compU + "->" + compV;
-                    if (!seenEdges.contains(edgeKey)) {
-                        seenEdges.add(edgeKey);
-                        // Use minimum weight edge between components (or could use max/average)
-                        condensation.addEdge(compU, compV, e.weight);
-                    }
-                }
-            }
-        }
-
-        return new CondensationResult(condensation, componentId);
+        return Condensation.build(graph, result, policy);
     }
 
     /**
      * Gets the component ID for a vertex.
      */
+    @Override
     public int getComponentId(int vertex) {
-        if (componentId == null) {
-            findSCCs();
+        if (result == null) {
+            findComponents();
         }
-        return componentId[vertex];
+        return result.getComponentId(vertex);
     }
 
     /**
      * Gets the number of components.
      */
+    @Override
     public int getComponentCount() {
-        if (components == null) {
-            findSCCs();
+        if (result == null) {
+            findComponents();
         }
-        return componentCount;
+        return result.getComponentCount();
     }
 
     /**
      * Gets the metrics object.
      */
+    @Override
     public Metrics getMetrics() {
         return metrics;
     }
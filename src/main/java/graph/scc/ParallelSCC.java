@@ -0,0 +1,716 @@
+package graph.scc;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+import java.util.*;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-core SCC decomposition using trimming plus forward-backward (FW-BW) search.
+ *
+ * Trimming peels off vertices with no remaining in- or out-edges (each is a trivial SCC).
+ * The remaining vertices are split recursively: the SCC of a pivot is the intersection of its
+ * forward and backward reachable sets, and the three leftover parts (forward-only,
+ * backward-only, neither) contain no common SCC, so they are solved independently on a
+ * {@link ForkJoinPool}. Subproblems are identified by a color per vertex.
+ *
+ * Pivots are chosen at random. Components are renumbered in topological order at the end,
+ * so results follow the same contract as {@link KosarajuSCC}, independent of thread scheduling.
+ *
+ * Trimming and renumbering run frontier by frontier on the pool. The vertices left after
+ * trimming are split into weakly connected components, so graphs made mostly of small components
+ * are solved by many independent tasks rather than a long series of pivots. FW-BW continues only
+ * while pivots find large SCCs; after that, parts are split into weak components again and each is
+ * solved by a linear Tarjan search, so a weak component with no large SCC is not parallelized
+ * internally. Small weak components are batched so each task still gets enough work.
+ */
+public class ParallelSCC implements SCCAlgorithm {
+    // Subproblems smaller than this are solved on the current thread
+    private static final int SEQUENTIAL_THRESHOLD = 1024;
+    // Trim frontiers and renumbering passes at least this long run on the pool
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int DONE = -1;
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+    private Metrics metrics;
+    private SCCResult result;
+
+    // State shared by the FW-BW tasks of one run
+    private int[] color;
+    private AtomicInteger nextColor;
+    private AtomicInteger nextComponent;
+    private LongAdder visits;
+    private LongAdder edges;
+    // Tarjan discovery order and low-link of vertices in small subproblems
+    private int[] order;
+    private int[] lowLink;
+    // Index of a vertex within the set being split into weak components
+    private int[] position;
+
+    public ParallelSCC(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.metrics = new CountingMetrics();
+    }
+
+    /**
+     * Finds all strongly connected components in parallel.
+     *
+     * @return component IDs and members in primitive arrays
+     */
+    @Override
+    public SCCResult findComponents() {
+        metrics.reset();
+        metrics.start();
+
+        int n = graph.getN();
+        // Compact the graph and build its reverse index before tasks read it concurrently
+        graph.getM();
+        if (n > 0) {
+            graph.inDegree(0);
+        }
+
+        int[] rawComponent = new int[n];
+        Arrays.fill(rawComponent, -1);
+        color = new int[n];
+        nextColor = new AtomicInteger(1);
+        nextComponent = new AtomicInteger();
+        visits = new LongAdder();
+        edges = new LongAdder();
+
+        int remaining = trim(rawComponent);
+        int[] rest = new int[remaining];
+        AtomicInteger k = new AtomicInteger();
+        forEach(0, n, v -> {
+            if (rawComponent[v] == -1) {
+                rest[k.getAndIncrement()] = v;
+            } else {
+                color[v] = DONE;
+            }
+        });
+        if (remaining > 0) {
+            order = new int[n];
+            lowLink = new int[n];
+            position = new int[n];
+            pool.invoke(new WeakSplitTask(null, rest, 0, true, rawComponent));
+            order = null;
+            lowLink = null;
+            position = null;
+        }
+
+        renumberTopologically(rawComponent, nextComponent.get());
+
+        metrics.addDfsVisits(visits.sum());
+        metrics.addEdgesTraversed(edges.sum());
+        metrics.stop();
+        return result;
+    }
+
+    /**
+     * Repeatedly removes vertices with no remaining in-edges or out-edges; each forms its own SCC.
+     * Peels frontier by frontier: large frontiers are processed in parallel with atomic degree
+     * decrements, and a vertex is claimed by whichever thread first drops one of its degrees to zero.
+     * A trimmed vertex's raw component ID is its position in the peel order.
+     *
+     * @return number of vertices left
+     */
+    private int trim(int[] rawComponent) {
+        int n = graph.getN();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        AtomicIntegerArray outDegree = new AtomicIntegerArray(n);
+        AtomicIntegerArray trimmed = new AtomicIntegerArray(n);
+        int[] order = new int[n];
+        AtomicInteger cursor = new AtomicInteger();
+        forEach(0, n, v -> {
+            int in = graph.inDegree(v);
+            int out = graph.outDegree(v);
+            inDegree.set(v, in);
+            outDegree.set(v, out);
+            if (in == 0 || out == 0) {
+                trimmed.set(v, 1);
+                order[cursor.getAndIncrement()] = v;
+            }
+        });
+
+        int head = 0;
+        int tail = cursor.get();
+        while (head < tail) {
+            forEach(head, tail, i -> {
+                int v = order[i];
+                rawComponent[v] = i;
+                for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                    int w = graph.edgeTarget(e);
+                    // A vertex is queued exactly once: by the thread that wins the claim
+                    if (trimmed.get(w) == 0 && inDegree.decrementAndGet(w) == 0 && trimmed.compareAndSet(w, 0, 1)) {
+                        order[cursor.getAndIncrement()] = w;
+                    }
+                }
+                for (int j = graph.inEdgeStart(v), end = graph.inEdgeEnd(v); j < end; j++) {
+                    int u = graph.inEdgeSource(j);
+                    if (trimmed.get(u) == 0 && outDegree.decrementAndGet(u) == 0 && trimmed.compareAndSet(u, 0, 1)) {
+                        order[cursor.getAndIncrement()] = u;
+                    }
+                }
+                edges.add(graph.outDegree(v) + graph.inDegree(v));
+            });
+            head = tail;
+            tail = cursor.get();
+        }
+        visits.add(tail);
+        nextComponent.set(tail);
+        return n - tail;
+    }
+
+    /**
+     * Splits a subproblem into weakly connected components, which share no SCC, and solves them
+     * concurrently. Large components go to FW-BW while it is still finding large SCCs and to Tarjan
+     * otherwise; small ones are batched for Tarjan so each task still gets enough work. Without this
+     * split, FW-BW on a graph of many small SCCs peels one of them per pivot and rescans the rest.
+     */
+    private final class WeakSplitTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private int[] vertices;
+        private final int subColor;
+        private final boolean pivot;
+        private final int[] rawComponent;
+
+        WeakSplitTask(CountedCompleter<?> parent, int[] vertices, int subColor, boolean pivot, int[] rawComponent) {
+            super(parent);
+            this.vertices = vertices;
+            this.subColor = subColor;
+            this.pivot = pivot;
+            this.rawComponent = rawComponent;
+        }
+
+        @Override
+        public void compute() {
+            int[] set = vertices;
+            vertices = null;
+            int c = subColor;
+            int size = set.length;
+
+            // Lock-free union-find over positions in set, following edges that stay inside it
+            AtomicIntegerArray parent = new AtomicIntegerArray(size);
+            forEach(0, size, i -> {
+                position[set[i]] = i;
+                parent.set(i, i);
+            });
+            forEach(0, size, i -> {
+                int u = set[i];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int w = graph.edgeTarget(e);
+                    if (color[w] == c) {
+                        union(parent, i, position[w]);
+                    }
+                }
+                edges.add(graph.outDegree(u));
+            });
+
+            // Group by root: the members of root r are grouped[start[r]] .. grouped[start[r + 1] - 1]
+            int[] root = new int[size];
+            AtomicIntegerArray sizes = new AtomicIntegerArray(size);
+            forEach(0, size, i -> sizes.incrementAndGet(root[i] = find(parent, i)));
+            int[] start = new int[size + 1];
+            forEach(0, size, r -> start[r + 1] = sizes.get(r));
+            prefixSum(start);
+            AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(start, size));
+            int[] grouped = new int[size];
+            int[] roots = new int[size];
+            AtomicInteger rootCount = new AtomicInteger();
+            forEach(0, size, i -> {
+                grouped[cursor.getAndIncrement(root[i])] = set[i];
+                if (root[i] == i) {
+                    roots[rootCount.getAndIncrement()] = i;
+                }
+            });
+            int count = rootCount.get();
+            Arrays.sort(roots, 0, count);
+            int[] bounds = new int[count + 1];
+            for (int r = 0; r < count; r++) {
+                bounds[r] = start[roots[r]];
+            }
+            bounds[count] = size;
+
+            int batchStart = 0;
+            for (int r = 0; r < count; r++) {
+                int from = bounds[r];
+                int to = bounds[r + 1];
+                if (to - from >= SEQUENTIAL_THRESHOLD) {
+                    if (batchStart < r) {
+                        addToPendingCount(1);
+                        new TarjanTask(this, grouped, bounds, batchStart, r, c, rawComponent).fork();
+                    }
+                    addToPendingCount(1);
+                    if (pivot) {
+                        new FwBwTask(this, Arrays.copyOfRange(grouped, from, to), c, rawComponent).fork();
+                    } else {
+                        new TarjanTask(this, grouped, bounds, r, r + 1, c, rawComponent).fork();
+                    }
+                    batchStart = r + 1;
+                } else if (to - bounds[batchStart] >= SEQUENTIAL_THRESHOLD) {
+                    addToPendingCount(1);
+                    new TarjanTask(this, grouped, bounds, batchStart, r + 1, c, rawComponent).fork();
+                    batchStart = r + 1;
+                }
+            }
+            solveBatch(grouped, bounds, batchStart, count, c, rawComponent);
+            tryComplete();
+        }
+    }
+
+    private static int find(AtomicIntegerArray parent, int v) {
+        int p;
+        while ((p = parent.get(v)) != v) {
+            // Path halving; a failed CAS only means another thread shortened the path first
+            int grandparent = parent.get(p);
+            parent.compareAndSet(v, p, grandparent);
+            v = grandparent;
+        }
+        return v;
+    }
+
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            a = find(parent, a);
+            b = find(parent, b);
+            if (a == b) {
+                return;
+            }
+            // Link the larger root under the smaller one; retry if it stopped being a root
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (parent.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Solves the weak components first .. last - 1 of a grouping with Tarjan's algorithm.
+     */
+    private final class TarjanTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] grouped;
+        private final int[] bounds;
+        private final int first;
+        private final int last;
+        private final int subColor;
+        private final int[] rawComponent;
+
+        TarjanTask(CountedCompleter<?> parent, int[] grouped, int[] bounds, int first, int last,
+                   int subColor, int[] rawComponent) {
+            super(parent);
+            this.grouped = grouped;
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last;
+            this.subColor = subColor;
+            this.rawComponent = rawComponent;
+        }
+
+        @Override
+        public void compute() {
+            solveBatch(grouped, bounds, first, last, subColor, rawComponent);
+            tryComplete();
+        }
+    }
+
+    private void solveBatch(int[] grouped, int[] bounds, int first, int last, int c, int[] rawComponent) {
+        if (first == last) {
+            return;
+        }
+        int[] scratch = new int[3 * (bounds[last] - bounds[first])];
+        for (int r = first; r < last; r++) {
+            tarjan(grouped, bounds[r], bounds[r + 1], c, rawComponent, scratch);
+        }
+    }
+
+    /**
+     * Finds the SCCs of the vertices set[from] .. set[to - 1], all of color c, with an explicit-stack
+     * Tarjan search restricted to color c. Vertices on the search get a fresh color and become
+     * {@link #DONE} once their component is assigned.
+     *
+     * @param scratch at least 3 * (to - from) entries
+     */
+    private void tarjan(int[] set, int from, int to, int c, int[] rawComponent, int[] scratch) {
+        int size = to - from;
+        // scratch[0, size) is the call stack, scratch[size, 2 * size) the edge cursor of each call,
+        // scratch[2 * size, 3 * size) the component stack
+        int callTop = 0;
+        int stackTop = 2 * size;
+        int visiting = nextColor.getAndIncrement();
+        int counter = 0;
+        long edgeCount = 0;
+
+        for (int k = from; k < to; k++) {
+            int s = set[k];
+            if (color[s] != c) {
+                continue;
+            }
+            color[s] = visiting;
+            order[s] = lowLink[s] = counter++;
+            scratch[stackTop++] = s;
+            scratch[size + callTop] = graph.edgeStart(s);
+            scratch[callTop++] = s;
+            while (callTop > 0) {
+                int v = scratch[callTop - 1];
+                int e = scratch[size + callTop - 1];
+                if (e < graph.edgeEnd(v)) {
+                    scratch[size + callTop - 1] = e + 1;
+                    int w = graph.edgeTarget(e);
+                    edgeCount++;
+                    if (color[w] == c) {
+                        color[w] = visiting;
+                        order[w] = lowLink[w] = counter++;
+                        scratch[stackTop++] = w;
+                        scratch[size + callTop] = graph.edgeStart(w);
+                        scratch[callTop++] = w;
+                    } else if (color[w] == visiting) {
+                        lowLink[v] = Math.min(lowLink[v], order[w]);
+                    }
+                    continue;
+                }
+                callTop--;
+                if (callTop > 0) {
+                    int u = scratch[callTop - 1];
+                    lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                }
+                if (lowLink[v] == order[v]) {
+                    int id = nextComponent.getAndIncrement();
+                    int w;
+                    do {
+                        w = scratch[--stackTop];
+                        color[w] = DONE;
+                        rawComponent[w] = id;
+                    } while (w != v);
+                }
+            }
+        }
+        visits.add(size);
+        edges.add(edgeCount);
+    }
+
+    /**
+     * Solves one FW-BW subproblem. Small parts are solved by Tarjan; large parts are forked to FW-BW
+     * again if the pivot's SCC was large, and otherwise split into weak components.
+     */
+    private final class FwBwTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        // Cleared once split, so forked children do not keep their parent's set reachable
+        private int[] vertices;
+        private final int subColor;
+        private final int[] rawComponent;
+
+        FwBwTask(CountedCompleter<?> parent, int[] vertices, int subColor, int[] rawComponent) {
+            super(parent);
+            this.vertices = vertices;
+            this.subColor = subColor;
+            this.rawComponent = rawComponent;
+        }
+
+        @Override
+        public void compute() {
+            int[] set = vertices;
+            vertices = null;
+            int c = subColor;
+            if (set.length < SEQUENTIAL_THRESHOLD) {
+                tarjan(set, 0, set.length, c, rawComponent, new int[3 * set.length]);
+                tryComplete();
+                return;
+            }
+
+            int forwardColor = nextColor.getAndIncrement();
+            int backwardColor = nextColor.getAndIncrement();
+            split(set, c, forwardColor, backwardColor, new int[set.length]);
+
+            int[][] parts = partition(set, forwardColor, backwardColor, c);
+            int[] partColors = {forwardColor, backwardColor, c};
+            // Once pivots land in small SCCs, more pivots would each peel off little
+            boolean pivot = set.length - parts[0].length - parts[1].length - parts[2].length >= SEQUENTIAL_THRESHOLD;
+            int[] scratch = null;
+            for (int p = 0; p < 3; p++) {
+                int[] part = parts[p];
+                if (part.length >= SEQUENTIAL_THRESHOLD) {
+                    addToPendingCount(1);
+                    if (pivot) {
+                        new FwBwTask(this, part, partColors[p], rawComponent).fork();
+                    } else {
+                        new WeakSplitTask(this, part, partColors[p], false, rawComponent).fork();
+                    }
+                } else if (part.length > 0) {
+                    if (scratch == null) {
+                        scratch = new int[3 * SEQUENTIAL_THRESHOLD];
+                    }
+                    tarjan(part, 0, part.length, partColors[p], rawComponent, scratch);
+                }
+            }
+            tryComplete();
+        }
+
+        /**
+         * Colors the forward set of the pivot, then walks backwards: vertices in both sets form
+         * the pivot's SCC, backward-only vertices get backwardColor.
+         */
+        private void split(int[] set, int c, int forwardColor, int backwardColor, int[] queue) {
+            // A random pivot splits long chains of components roughly in half on average
+            int pivot = set[ThreadLocalRandom.current().nextInt(set.length)];
+            long edgeCount = 0;
+
+            int head = 0, tail = 0;
+            color[pivot] = forwardColor;
+            queue[tail++] = pivot;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                    int w = graph.edgeTarget(e);
+                    edgeCount++;
+                    if (color[w] == c) {
+                        color[w] = forwardColor;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            int visited = tail;
+
+            int sccId = nextComponent.getAndIncrement();
+            head = 0;
+            tail = 0;
+            color[pivot] = DONE;
+            rawComponent[pivot] = sccId;
+            queue[tail++] = pivot;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = graph.inEdgeStart(v), end = graph.inEdgeEnd(v); i < end; i++) {
+                    int u = graph.inEdgeSource(i);
+                    edgeCount++;
+                    if (color[u] == forwardColor) {
+                        color[u] = DONE;
+                        rawComponent[u] = sccId;
+                        queue[tail++] = u;
+                    } else if (color[u] == c) {
+                        color[u] = backwardColor;
+                        queue[tail++] = u;
+                    }
+                }
+            }
+            visits.add(visited + tail);
+            edges.add(edgeCount);
+        }
+    }
+
+    /**
+     * Splits a vertex set by color into forward-only, backward-only and untouched parts.
+     */
+    private int[][] partition(int[] set, int forwardColor, int backwardColor, int c) {
+        int forwardCount = 0, backwardCount = 0, restCount = 0;
+        for (int v : set) {
+            int vc = color[v];
+            if (vc == forwardColor) {
+                forwardCount++;
+            } else if (vc == backwardColor) {
+                backwardCount++;
+            } else if (vc == c) {
+                restCount++;
+            }
+        }
+        int[] forward = new int[forwardCount];
+        int[] backward = new int[backwardCount];
+        int[] rest = new int[restCount];
+        forwardCount = backwardCount = restCount = 0;
+        for (int v : set) {
+            int vc = color[v];
+            if (vc == forwardColor) {
+                forward[forwardCount++] = v;
+            } else if (vc == backwardColor) {
+                backward[backwardCount++] = v;
+            } else if (vc == c) {
+                rest[restCount++] = v;
+            }
+        }
+        return new int[][] {forward, backward, rest};
+    }
+
+    /**
+     * Replaces the scheduling-dependent raw component IDs with IDs in topological order of the
+     * condensation. Components are first numbered by smallest member, then ranked by a
+     * level-synchronous Kahn pass whose wavefronts are sorted, so the result does not depend on
+     * thread timing. Every pass over vertices, edges or a large wavefront runs on the pool.
+     */
+    private void renumberTopologically(int[] rawComponent, int rawCount) {
+        int n = graph.getN();
+
+        // Number components by smallest member; largest[raw] holds n minus the smallest member
+        AtomicIntegerArray largest = new AtomicIntegerArray(rawCount);
+        forEach(0, n, v -> largest.accumulateAndGet(rawComponent[v], n - v, Math::max));
+        int[] first = new int[n];
+        forEach(0, n, v -> first[v] = n - largest.get(rawComponent[v]) == v ? 1 : 0);
+        prefixSum(first);
+        int count = n == 0 ? 0 : first[n - 1];
+        int[] comp = new int[n];
+        forEach(0, n, v -> comp[v] = first[n - largest.get(rawComponent[v])] - 1);
+
+        // Members of each component in CSR form, in increasing vertex order
+        AtomicIntegerArray sizes = new AtomicIntegerArray(count);
+        forEach(0, n, v -> sizes.incrementAndGet(comp[v]));
+        int[] memberOffsets = new int[count + 1];
+        forEach(0, count, c -> memberOffsets[c + 1] = sizes.get(c));
+        prefixSum(memberOffsets);
+        AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(memberOffsets, count));
+        int[] members = new int[n];
+        forEach(0, n, v -> members[cursor.getAndIncrement(comp[v])] = v);
+        if (n >= PARALLEL_THRESHOLD) {
+            // The scatter ran in parallel, so restore vertex order within each component
+            forEach(0, count, c -> {
+                int from = memberOffsets[c];
+                int to = memberOffsets[c + 1];
+                if (to - from >= PARALLEL_THRESHOLD) {
+                    Arrays.parallelSort(members, from, to);
+                } else if (to - from > 1) {
+                    Arrays.sort(members, from, to);
+                }
+            });
+        }
+
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(count);
+        forEach(0, n, u -> {
+            int cu = comp[u];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int cv = comp[graph.edgeTarget(e)];
+                if (cv != cu) {
+                    inDegree.incrementAndGet(cv);
+                }
+            }
+        });
+        int[] queue = new int[count];
+        int tail = 0;
+        for (int c = 0; c < count; c++) {
+            if (inDegree.get(c) == 0) {
+                queue[tail++] = c;
+            }
+        }
+        AtomicInteger next = new AtomicInteger(tail);
+        int head = 0;
+        while (head < tail) {
+            forEach(head, tail, i -> {
+                int c = queue[i];
+                for (int k = memberOffsets[c]; k < memberOffsets[c + 1]; k++) {
+                    int u = members[k];
+                    for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                        int cv = comp[graph.edgeTarget(e)];
+                        if (cv != c && inDegree.decrementAndGet(cv) == 0) {
+                            queue[next.getAndIncrement()] = cv;
+                        }
+                    }
+                }
+            });
+            head = tail;
+            tail = next.get();
+            Arrays.sort(queue, head, tail);
+        }
+        int[] rank = new int[count];
+        forEach(0, count, i -> rank[queue[i]] = i);
+
+        // Regroup members by rank
+        int[] offsets = new int[count + 1];
+        forEach(0, count, c -> offsets[rank[c] + 1] = memberOffsets[c + 1] - memberOffsets[c]);
+        prefixSum(offsets);
+        int[] componentId = new int[n];
+        int[] ranked = new int[n];
+        forEach(0, n, i -> {
+            int v = members[i];
+            int c = comp[v];
+            ranked[offsets[rank[c]] + i - memberOffsets[c]] = v;
+            componentId[v] = rank[c];
+        });
+        result = new SCCResult(componentId, offsets, ranked);
+    }
+
+    /**
+     * Runs body for every index in [from, to), on the pool when the range is large.
+     */
+    private void forEach(int from, int to, IntConsumer body) {
+        if (to - from >= PARALLEL_THRESHOLD) {
+            pool.submit(() -> IntStream.range(from, to).parallel().forEach(body)).join();
+        } else {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Replaces every entry with the sum of itself and all entries before it.
+     */
+    private void prefixSum(int[] values) {
+        if (values.length >= PARALLEL_THRESHOLD) {
+            pool.submit(() -> Arrays.parallelPrefix(values, Integer::sum)).join();
+        } else {
+            for (int i = 1; i < values.length; i++) {
+                values[i] += values[i - 1];
+            }
+        }
+    }
+
+    /**
+     * Builds the condensation graph (DAG where each node is an SCC).
+     *
+     * @param policy how weights of parallel edges between two components are combined
+     * @return condensation graph and mapping from original vertices to component IDs
+     */
+    @Override
+    public KosarajuSCC.CondensationResult buildCondensation(WeightAggregation policy) {
+        if (result == null) {
+            findComponents();
+        }
+        return Condensation.build(graph, result, policy);
+    }
+
+    /**
+     * Gets the component ID for a vertex.
+     */
+    @Override
+    public int getComponentId(int vertex) {
+        if (result == null) {
+            findComponents();
+        }
+        return result.getComponentId(vertex);
+    }
+
+    /**
+     * Gets the number of components.
+     */
+    @Override
+    public int getComponentCount() {
+        if (result == null) {
+            findComponents();
+        }
+        return result.getComponentCount();
+    }
+
+    /**
+     * Gets the metrics object.
+     */
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,57 @@
+package graph.scc;
+
+import graph.Metrics;
+import java.util.List;
+
+/**
+ * Common interface of the strongly connected component engines.
+ * Components are numbered in topological order of the condensation graph:
+ * every edge between two components goes from a lower to a higher component ID.
+ */
+public interface SCCAlgorithm {
+
+    /**
+     * Finds all strongly connected components.
+     *
+     * @return component IDs and members in primitive arrays
+     */
+    SCCResult findComponents();
+
+    /**
+     * Finds all strongly connected components.
+     *
+     * @return read-only list of SCCs, each SCC is a list of vertex IDs; index = component ID
+     */
+    default List<List<Integer>> findSCCs() {
+        return findComponents().asLists();
+    }
+
+    /**
+     * Gets the component ID for a vertex.
+     */
+    int getComponentId(int vertex);
+
+    /**
+     * Gets the number of components.
+     */
+    int getComponentCount();
+
+    /**
+     * Builds the condensation graph (DAG where each node is an SCC),
+     * keeping the weight of the first edge seen between two components.
+     */
+    default KosarajuSCC.CondensationResult buildCondensation() {
+        return buildCondensation(WeightAggregation.FIRST);
+    }
+
+    /**
+     * Builds the condensation graph, combining the weights of all edges between
+     * two components with the given policy.
+     */
+    KosarajuSCC.CondensationResult buildCondensation(WeightAggregation policy);
+
+    /**
+     * Gets the metrics object.
+     */
+    Metrics getMetrics();
+}
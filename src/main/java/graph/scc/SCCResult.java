@@ -0,0 +1,166 @@
+package graph.scc;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Primitive result of an SCC decomposition.
+ *
+ * Holds the component ID of every vertex plus the members of every component in CSR form:
+ * the members of component c are {@code member(i)} for i in [memberStart(c), memberEnd(c)).
+ * All accessors read the arrays in place; the list views box values only when read.
+ */
+public class SCCResult {
+    private final int[] componentId;
+    private final int[] offsets;
+    private final int[] members;
+
+    /**
+     * @param componentId component ID of every vertex
+     * @param offsets component member offsets (componentCount + 1 entries)
+     * @param members vertices grouped by component
+     */
+    SCCResult(int[] componentId, int[] offsets, int[] members) {
+        this.componentId = componentId;
+        this.offsets = offsets;
+        this.members = members;
+    }
+
+    /**
+     * Gets the number of components.
+     */
+    public int getComponentCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the number of vertices.
+     */
+    public int getVertexCount() {
+        return componentId.length;
+    }
+
+    /**
+     * Gets the component ID for a vertex.
+     */
+    public int getComponentId(int vertex) {
+        return componentId[vertex];
+    }
+
+    /**
+     * Gets the number of vertices in component c.
+     */
+    public int componentSize(int c) {
+        return offsets[c + 1] - offsets[c];
+    }
+
+    /**
+     * Gets the index of the first member of component c.
+     */
+    public int memberStart(int c) {
+        return offsets[c];
+    }
+
+    /**
+     * Gets the index one past the last member of component c.
+     */
+    public int memberEnd(int c) {
+        return offsets[c + 1];
+    }
+
+    /**
+     * Gets the member at index i of the flat member array.
+     */
+    public int member(int i) {
+        return members[i];
+    }
+
+    /**
+     * Iterates over the members of component c without boxing.
+     */
+    public PrimitiveIterator.OfInt members(int c) {
+        return new PrimitiveIterator.OfInt() {
+            private int i = offsets[c];
+            private final int end = offsets[c + 1];
+
+            @Override
+            public boolean hasNext() {
+                return i < end;
+            }
+
+            @Override
+            public int nextInt() {
+                if (i >= end) {
+                    throw new NoSuchElementException();
+                }
+                return members[i++];
+            }
+        };
+    }
+
+    /**
+     * Copies the members of component c into a new array.
+     */
+    public int[] copyMembers(int c) {
+        return Arrays.copyOfRange(members, offsets[c], offsets[c + 1]);
+    }
+
+    /**
+     * Copies the component ID of every vertex into a new array.
+     */
+    public int[] copyComponentIds() {
+        return componentId.clone();
+    }
+
+    /**
+     * Gets the component ID array itself, not copied; callers must not write to it or hand it out.
+     */
+    int[] componentIds() {
+        return componentId;
+    }
+
+    /**
+     * Read-only list view of the members of component c.
+     */
+    public List<Integer> componentAsList(int c) {
+        int start = offsets[c];
+        int size = offsets[c + 1] - start;
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of range for size " + size);
+                }
+                return members[start + index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Read-only list view of all components; index = component ID.
+     */
+    public List<List<Integer>> asLists() {
+        return new AbstractList<List<Integer>>() {
+            @Override
+            public List<Integer> get(int c) {
+                if (c < 0 || c >= getComponentCount()) {
+                    throw new IndexOutOfBoundsException("Component " + c + " out of range for " + getComponentCount());
+                }
+                return componentAsList(c);
+            }
+
+            @Override
+            public int size() {
+                return getComponentCount();
+            }
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package graph.scc;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+
+/**
+ * Implementation of Tarjan's algorithm for finding Strongly Connected Components (SCC).
+ * A single DFS pass touches each edge once and needs no reverse graph.
+ * The DFS uses explicit int stacks, so deep graphs do not overflow the thread stack.
+ */
+public class TarjanSCC implements SCCAlgorithm {
+    private final Graph graph;
+    private Metrics metrics;
+    private SCCResult result;
+
+    public TarjanSCC(Graph graph) {
+        this.graph = graph;
+        this.metrics = new CountingMetrics();
+    }
+
+    /**
+     * Finds all strongly connected components.
+     * Tarjan completes components in reverse topological order; they are renumbered
+     * so that IDs follow topological order, as in {@link KosarajuSCC}. Members are written
+     * from the end of the member array backwards, so the renumbered components come out
+     * in order without regrouping.
+     *
+     * @return component IDs and members in primitive arrays
+     */
+    @Override
+    public SCCResult findComponents() {
+        metrics.reset();
+        metrics.start();
+
+        int n = graph.getN();
+        int[] index = new int[n];       // DFS discovery index + 1, 0 = unvisited
+        int[] lowlink = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+        int[] callStack = new int[n];   // vertices of the active DFS path
+        int[] edgeCursor = new int[n];  // next out-edge to examine for each path vertex
+        int nextIndex = 1;
+
+        int[] componentId = new int[n];
+        int[] members = new int[n];
+        int[] completedStart = new int[n];  // start of the k-th completed component in members
+        int completedCount = 0;
+        int memberPos = n;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = root;
+            edgeCursor[0] = graph.edgeStart(root);
+            index[root] = lowlink[root] = nextIndex++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            metrics.incrementDfsVisits();
+
+            while (depth >= 0) {
+                int v = callStack[depth];
+                int end = graph.edgeEnd(v);
+                if (edgeCursor[depth] < end) {
+                    int w = graph.edgeTarget(edgeCursor[depth]++);
+                    metrics.incrementEdgesTraversed();
+                    if (index[w] == 0) {
+                        depth++;
+                        callStack[depth] = w;
+                        edgeCursor[depth] = graph.edgeStart(w);
+                        index[w] = lowlink[w] = nextIndex++;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        metrics.incrementDfsVisits();
+                    } else if (onStack[w] && index[w] < lowlink[v]) {
+                        lowlink[v] = index[w];
+                    }
+                    continue;
+                }
+
+                // All edges of v examined: v is a root of an SCC if its lowlink is its own index
+                if (lowlink[v] == index[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        componentId[w] = completedCount;
+                        members[--memberPos] = w;
+                    } while (w != v);
+                    completedStart[completedCount++] = memberPos;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callStack[depth];
+                    if (lowlink[v] < lowlink[parent]) {
+                        lowlink[parent] = lowlink[v];
+                    }
+                }
+            }
+        }
+
+        int[] offsets = new int[completedCount + 1];
+        for (int k = 0; k < completedCount; k++) {
+            offsets[completedCount - 1 - k] = completedStart[k];
+        }
+        offsets[completedCount] = n;
+        for (int v = 0; v < n; v++) {
+            componentId[v] = completedCount - 1 - componentId[v];
+        }
+
+        result = new SCCResult(componentId, offsets, members);
+        metrics.stop();
+        return result;
+    }
+
+    /**
+     * Builds the condensation graph (DAG where each node is an SCC).
+     *
+     * @param policy how weights of parallel edges between two components are combined
+     * @return condensation graph and mapping from original vertices to component IDs
+     */
+    @Override
+    public KosarajuSCC.CondensationResult buildCondensation(WeightAggregation policy) {
+        if (result == null) {
+            findComponents();
+        }
+        return Condensation.build(graph, result, policy);
+    }
+
+    /**
+     * Gets the component ID for a vertex.
+     */
+    @Override
+    public int getComponentId(int vertex) {
+        if (result == null) {
+            findComponents();
+        }
+        return result.getComponentId(vertex);
+    }
+
+    /**
+     * Gets the number of components.
+     */
+    @Override
+    public int getComponentCount() {
+        if (result == null) {
+            findComponents();
+        }
+        return result.getComponentCount();
+    }
+
+    /**
+     * Gets the metrics object.
+     */
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,16 @@
+package graph.scc;
+
+/**
+ * How the weights of parallel edges between two components are combined
+ * into the single condensation edge.
+ */
+public enum WeightAggregation {
+    /** Minimum weight of the edges between the two components. */
+    MIN,
+    /** Maximum weight of the edges between the two components. */
+    MAX,
+    /** Sum of the weights, saturated to the int range. */
+    SUM,
+    /** Weight of the first edge encountered (lowest source vertex, then adjacency order). */
+    FIRST
+}
@@ -0,0 +1,239 @@
+package graph.topo;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.Metrics;
+import graph.NoOpMetrics;
+import java.util.*;
+
+/**
+ * Topological order of a DAG maintained under edge insertions (Pearce-Kelly).
+ *
+ * Holds the order as a permutation (position of every vertex and vertex at every position) plus
+ * its own forward and backward adjacency lists. Inserting u -> v where u already precedes v costs
+ * O(1). Otherwise only the window between the two endpoints is touched: a forward search from v
+ * over vertices positioned up to u, and a backward search from u over vertices positioned from v.
+ * If the forward search reaches u the edge would close a cycle and is rejected; otherwise the
+ * vertices found backward are moved in front of those found forward, reusing their positions.
+ *
+ * Edges are also added to the wrapped graph, so the graph and the order stay in step and the
+ * order can be handed to {@link graph.dagsp.DAGQueryPlan#compile(Graph, List)} without re-sorting.
+ */
+public class DynamicTopologicalOrder {
+    private final Graph graph;
+    private final int n;
+    private Metrics metrics;
+
+    private final int[] position;
+    private final int[] order;
+
+    // Growable adjacency: out[u][0 .. outSize[u]) and in[v][0 .. inSize[v])
+    private final int[][] out;
+    private final int[] outSize;
+    private final int[][] in;
+    private final int[] inSize;
+
+    // Search scratch: vertex v was found by the current search when visitStamp[v] == epoch
+    private final int[] visitStamp;
+    private int epoch;
+    private final int[] stack;
+
+    /**
+     * Sorts the graph once with {@link TopologicalSort#kahn()}.
+     *
+     * @throws IllegalStateException if graph contains cycles
+     */
+    public DynamicTopologicalOrder(Graph graph) {
+        this.graph = graph;
+        this.n = graph.getN();
+        this.metrics = new CountingMetrics();
+
+        List<Integer> initial = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahn();
+        position = new int[n];
+        order = new int[n];
+        for (int p = 0; p < n; p++) {
+            order[p] = initial.get(p);
+            position[order[p]] = p;
+        }
+
+        outSize = new int[n];
+        inSize = new int[n];
+        out = new int[n][];
+        in = new int[n][];
+        for (int v = 0; v < n; v++) {
+            out[v] = new int[graph.edgeEnd(v) - graph.edgeStart(v)];
+            in[v] = new int[graph.inDegree(v)];
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.edgeTarget(e);
+                out[u][outSize[u]++] = v;
+                in[v][inSize[v]++] = u;
+            }
+        }
+
+        visitStamp = new int[n];
+        stack = new int[n];
+    }
+
+    /**
+     * Adds an edge to the graph and restores the order. The edge reaches the graph before the
+     * order or the adjacency lists change, so if the graph rejects it (a read-only
+     * {@link graph.MappedGraph}, for instance) the exception propagates with nothing changed.
+     *
+     * @throws IllegalStateException if the edge would create a cycle; nothing is changed then
+     */
+    public void addEdge(int u, int v, int w) {
+        checkVertex(u);
+        checkVertex(v);
+        metrics.reset();
+        metrics.start();
+
+        int upper = position[u];
+        int lower = position[v];
+        int[] forward = null;
+        if (lower <= upper) {
+            nextEpoch();
+            forward = search(v, upper, true);
+            if (forward == null) {
+                metrics.stop();
+                throw new IllegalStateException("Edge " + u + " -> " + v + " would create a cycle");
+            }
+        }
+        try {
+            graph.addEdge(u, v, w);
+        } catch (RuntimeException e) {
+            metrics.stop();
+            throw e;
+        }
+
+        if (forward != null) {
+            int[] backward = search(u, lower, false);
+            reorder(backward, forward);
+        }
+        out[u] = append(out[u], outSize[u]++, v);
+        in[v] = append(in[v], inSize[v]++, u);
+        metrics.stop();
+    }
+
+    /**
+     * Collects the positions of the vertices reachable from start (forward) or reaching it
+     * (backward) without leaving the window bounded by bound.
+     *
+     * @return the positions, sorted; null if a forward search reached the vertex at bound
+     */
+    private int[] search(int start, int bound, boolean forward) {
+        int found = 0;
+        int[] positions = new int[8];
+        int top = 0;
+        stack[top++] = start;
+        visitStamp[start] = epoch;
+        while (top > 0) {
+            int x = stack[--top];
+            if (forward && position[x] == bound) {
+                return null;
+            }
+            positions = append(positions, found++, position[x]);
+            metrics.incrementDfsVisits();
+            int[] edges = forward ? out[x] : in[x];
+            int size = forward ? outSize[x] : inSize[x];
+            for (int i = 0; i < size; i++) {
+                int y = edges[i];
+                metrics.incrementEdgesTraversed();
+                boolean inWindow = forward ? position[y] <= bound : position[y] >= bound;
+                if (inWindow && visitStamp[y] != epoch) {
+                    visitStamp[y] = epoch;
+                    stack[top++] = y;
+                }
+            }
+        }
+        int[] result = Arrays.copyOf(positions, found);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Gives the backward set the lowest of the combined positions and the forward set the rest,
+     * each keeping its relative order.
+     */
+    private void reorder(int[] backward, int[] forward) {
+        int total = backward.length + forward.length;
+        int[] vertices = new int[total];
+        for (int i = 0; i < backward.length; i++) {
+            vertices[i] = order[backward[i]];
+        }
+        for (int i = 0; i < forward.length; i++) {
+            vertices[backward.length + i] = order[forward[i]];
+        }
+
+        // Merge the two sorted position lists into the pool of free slots
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            int slot = j >= forward.length || (i < backward.length && backward[i] < forward[j])
+                    ? backward[i++] : forward[j++];
+            order[slot] = vertices[k];
+            position[vertices[k]] = slot;
+        }
+    }
+
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            Arrays.fill(visitStamp, 0);
+            epoch = 1;
+        }
+    }
+
+    private static int[] append(int[] array, int size, int value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, size * 2));
+        }
+        array[size] = value;
+        return array;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " out of range for " + n + " vertices");
+        }
+    }
+
+    /**
+     * Gets the position of v in the current order.
+     */
+    public int getPosition(int v) {
+        return position[v];
+    }
+
+    /**
+     * Gets the vertex at position p of the current order.
+     */
+    public int getVertex(int p) {
+        return order[p];
+    }
+
+    /**
+     * Gets a copy of the current order.
+     */
+    public List<Integer> getOrder() {
+        List<Integer> result = new ArrayList<>(n);
+        for (int v : order) {
+            result.add(v);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the graph whose order is maintained.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the metrics of the last insert.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
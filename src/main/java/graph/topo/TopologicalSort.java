@@ -1,8 +1,17 @@
 package graph.topo;
 
+import graph.CountingMetrics;
 import graph.Graph;
+import graph.IterativeDFS;
 import graph.Metrics;
+import graph.NoOpMetrics;
+import graph.TraversalWorkspace;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of Kahn's algorithm for topological sorting.
@@ -13,9 +22,20 @@ public class TopologicalSort {
     private Metrics metrics;
     private List<Integer> topoOrder;
 
+    // Frontiers smaller than this are relaxed on the calling thread
+    private static final int PARALLEL_FRONTIER_THRESHOLD = 4096;
+
     public TopologicalSort(Graph graph) {
+        this(graph, new CountingMetrics());
+    }
+
+    /**
+     * Creates an instance that reports to the given metrics; pass
+     * {@link NoOpMetrics#INSTANCE} to run without counting.
+     */
+    public TopologicalSort(Graph graph, Metrics metrics) {
         this.graph = graph;
-        this.metrics = new Metrics();
+        this.metrics = metrics;
     }
 
     /**
@@ -33,11 +53,9 @@ public class TopologicalSort {
         Queue<Integer> queue = new LinkedList<>();
         topoOrder = new ArrayList<>();
 
-        // Calculate in-degrees
-        for (int u = 0; u < n; u++) {
-            for (Graph.Edge e : graph.getAdjacent(u)) {
-                inDegree[e.to]++;
-            }
+        // In-degrees come from the graph's cached reverse index
+        for (int v = 0; v < n; v++) {
+            inDegree[v] = graph.inDegree(v);
         }
 
         // Add all vertices with in-degree 0 to queue
@@ -54,10 +72,11 @@ public class TopologicalSort {
             metrics.incrementQueuePops();
             topoOrder.add(u);
 
-            for (Graph.Edge e : graph.getAdjacent(u)) {
-                inDegree[e.to]--;
-                if (inDegree[e.to] == 0) {
-                    queue.offer(e.to);
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int to = graph.edgeTarget(e);
+                inDegree[to]--;
+                if (inDegree[to] == 0) {
+                    queue.offer(to);
                     metrics.incrementQueuePushes();
                 }
             }
@@ -74,59 +93,158 @@ public class TopologicalSort {
     }
 
     /**
-     * Computes topological order using DFS-based approach.
-     * 
-     * @return list of vertices in topological order
+     * Computes a topological order using Kahn's algorithm without allocating:
+     * the queue, remaining in-degrees and the resulting order live in the workspace.
+     * Produces the same order as {@link #kahn()}.
+     *
+     * @param workspace workspace with capacity for this graph; holds the order afterwards
+     * @throws IllegalStateException if graph contains cycles
      */
-    public List<Integer> dfsTopo() {
+    public void kahn(TraversalWorkspace workspace) {
         metrics.reset();
         metrics.start();
+        workspace.checkCapacity(graph);
 
         int n = graph.getN();
-        boolean[] visited = new boolean[n];
-        boolean[] inStack = new boolean[n];
-        topoOrder = new ArrayList<>();
+        workspace.resetDegrees();
+        workspace.clearQueue();
+        workspace.clearOrder();
 
         for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                if (!dfsTopoHelper(i, visited, inStack)) {
-                    metrics.stop();
-                    throw new IllegalStateException("Graph contains cycles!");
+            if (graph.inDegree(i) == 0) {
+                workspace.enqueue(i);
+                metrics.incrementQueuePushes();
+            }
+        }
+
+        while (!workspace.isQueueEmpty()) {
+            int u = workspace.dequeue();
+            metrics.incrementQueuePops();
+            workspace.appendOrder(u);
+
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int to = graph.edgeTarget(e);
+                if (workspace.decrementDegree(to, graph.inDegree(to)) == 0) {
+                    workspace.enqueue(to);
+                    metrics.incrementQueuePushes();
                 }
             }
         }
 
-        Collections.reverse(topoOrder);
+        if (workspace.getOrderSize() != n) {
+            metrics.stop();
+            throw new IllegalStateException("Graph contains cycles! Topological sort not possible.");
+        }
         metrics.stop();
-        return new ArrayList<>(topoOrder);
     }
 
     /**
-     * Helper for DFS-based topological sort.
-     * Returns false if cycle is detected.
+     * Level-synchronous Kahn's algorithm on the common fork-join pool.
+     *
+     * @see #kahnLevels(ForkJoinPool)
      */
-    private boolean dfsTopoHelper(int v, boolean[] visited, boolean[] inStack) {
-        if (inStack[v]) {
-            return false; // Cycle detected
+    public LevelResult kahnLevels() {
+        return kahnLevels(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes a topological order wavefront by wavefront. Level 0 holds the vertices with
+     * no in-edges; level k + 1 holds the vertices whose last predecessor is in level k, i.e.
+     * level[v] is the length of the longest edge path ending at v. All vertices of one level
+     * can run concurrently. Each frontier is processed in parallel with atomic in-degree
+     * decrements; vertices within a level are sorted, so the result is deterministic.
+     *
+     * @param pool pool used for large frontiers
+     * @return order, per-vertex level and level boundaries
+     * @throws IllegalStateException if graph contains cycles
+     */
+    public LevelResult kahnLevels(ForkJoinPool pool) {
+        metrics.reset();
+        metrics.start();
+
+        int n = graph.getN();
+        int[] level = new int[n];
+        int[] order = new int[n];
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            int degree = graph.inDegree(v);
+            inDegree.set(v, degree);
+            if (degree == 0) {
+                order[tail++] = v;
+            }
         }
-        if (visited[v]) {
-            return true;
+
+        int[] levelOffsets = new int[n + 1];
+        int levelCount = 0;
+        int head = 0;
+        AtomicInteger cursor = new AtomicInteger(tail);
+        while (head < tail) {
+            levelOffsets[++levelCount] = tail;
+            final int start = head;
+            final int end = tail;
+            final int nextLevel = levelCount;
+            IntConsumer relax = i -> {
+                int u = order[i];
+                for (int e = graph.edgeStart(u), edgeEnd = graph.edgeEnd(u); e < edgeEnd; e++) {
+                    int to = graph.edgeTarget(e);
+                    if (inDegree.decrementAndGet(to) == 0) {
+                        level[to] = nextLevel;
+                        order[cursor.getAndIncrement()] = to;
+                    }
+                }
+            };
+            if (end - start >= PARALLEL_FRONTIER_THRESHOLD) {
+                pool.submit(() -> IntStream.range(start, end).parallel().forEach(relax)).join();
+            } else {
+                for (int i = start; i < end; i++) {
+                    relax.accept(i);
+                }
+            }
+            head = end;
+            tail = cursor.get();
+            Arrays.sort(order, head, tail);
+            metrics.addQueuePops(end - start);
+            metrics.addQueuePushes(end - start);
         }
 
-        visited[v] = true;
-        inStack[v] = true;
-        metrics.incrementDfsVisits();
+        if (head != n) {
+            metrics.stop();
+            throw new IllegalStateException("Graph contains cycles! Topological sort not possible.");
+        }
+
+        metrics.stop();
+        return new LevelResult(order, level, Arrays.copyOf(levelOffsets, levelCount + 1));
+    }
+
+    /**
+     * Computes topological order using DFS-based approach.
+     * 
+     * @return list of vertices in topological order
+     */
+    public List<Integer> dfsTopo() {
+        metrics.reset();
+        metrics.start();
+
+        int n = graph.getN();
+        IterativeDFS dfs = new IterativeDFS(graph, false, metrics);
+        topoOrder = new ArrayList<>(n);
 
-        for (Graph.Edge e : graph.getAdjacent(v)) {
-            metrics.incrementEdgesTraversed();
-            if (!dfsTopoHelper(e.to, visited, inStack)) {
-                return false;
+        for (int i = 0; i < n; i++) {
+            if (!dfs.isVisited(i)) {
+                if (!dfs.visit(i, true)) {
+                    metrics.stop();
+                    throw new IllegalStateException("Graph contains cycles!");
+                }
             }
         }
 
-        inStack[v] = false;
-        topoOrder.add(v);
-        return true;
+        // Reverse postorder is a topological order
+        for (int k = dfs.getPostorderCount() - 1; k >= 0; k--) {
+            topoOrder.add(dfs.getPostorder(k));
+        }
+        metrics.stop();
+        return new ArrayList<>(topoOrder);
     }
 
     /**
@@ -142,4 +260,22 @@ public class TopologicalSort {
     public List<Integer> getTopoOrder() {
         return topoOrder != null ? new ArrayList<>(topoOrder) : null;
     }
+
+    /**
+     * Result of the level-synchronous topological sort.
+     * Vertices of level k are order[levelOffsets[k]] .. order[levelOffsets[k + 1] - 1].
+     */
+    public static class LevelResult {
+        public final int[] order;
+        public final int[] level;
+        public final int[] levelOffsets;
+        public final int levelCount;
+
+        public LevelResult(int[] order, int[] level, int[] levelOffsets) {
+            this.order = order;
+            this.level = level;
+            this.levelOffsets = levelOffsets;
+            this.levelCount = levelOffsets.length - 1;
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package graph;
+
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Unit tests for BinaryGraphFormat and MappedGraph.
+ */
+public class BinaryGraphFormatTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (String json : new String[]{"data/small1.json", "data/large3.json", "data/tasks_durations.json"}) {
+            String bin = folder.newFile().getPath();
+            BinaryGraphFormat.convertJson(json, bin);
+            GraphLoader.GraphData expected = GraphLoader.load(json);
+            MappedGraph actual = BinaryGraphFormat.load(bin);
+
+            assertEquals(json, expected.source, actual.getSource());
+            assertEquals(json, expected.weightModel, actual.getWeightModel());
+            assertEquals(json, expected.graph.hasNodeWeights(), actual.hasNodeWeights());
+            assertSameGraph(expected.graph, actual);
+        }
+    }
+
+    @Test
+    public void testNodeWeightsSurviveRoundTrip() throws IOException {
+        String bin = folder.newFile().getPath();
+        BinaryGraphFormat.convertJson("data/tasks_durations.json", bin);
+        GraphLoader.GraphData expected = GraphLoader.load("data/tasks_durations.json");
+        MappedGraph actual = BinaryGraphFormat.load(bin);
+
+        assertTrue(actual.hasNodeWeights());
+        for (int v = 0; v < expected.graph.getN(); v++) {
+            assertEquals(expected.graph.getNodeWeight(v), actual.getNodeWeight(v));
+        }
+    }
+
+    @Test
+    public void testSmallWindowsMatchSingleMapping() throws IOException {
+        // Windows of 4 ints split every array, as 1 GB windows would for very large files
+        for (String json : new String[]{"data/large3.json", "data/tasks_durations.json"}) {
+            String bin = folder.newFile().getPath();
+            BinaryGraphFormat.convertJson(json, bin);
+            GraphLoader.GraphData expected = GraphLoader.load(json);
+            MappedGraph actual = BinaryGraphFormat.load(bin, 2);
+
+            assertSameGraph(expected.graph, actual);
+            for (int v = 0; expected.graph.hasNodeWeights() && v < expected.graph.getN(); v++) {
+                assertEquals(expected.graph.getNodeWeight(v), actual.getNodeWeight(v));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsSourceOutOfRange() throws IOException {
+        assertRejected(patchInt(4, -1));
+        assertRejected(patchInt(4, 3));
+    }
+
+    @Test
+    public void testRejectsInvalidOffsets() throws IOException {
+        // Sample offsets are 0, 1, 2, 2
+        int first = BinaryGraphFormat.HEADER_INTS;
+        assertRejected(patchInt(first, 1));
+        assertRejected(patchInt(first + 2, 0));
+        assertRejected(patchInt(first + 3, 1));
+        assertRejected(patchInt(first + 3, 3));
+    }
+
+    @Test
+    public void testRejectsWrongMagic() throws IOException {
+        assertRejected(patchInt(0, 0x12345678));
+    }
+
+    @Test
+    public void testRejectsWrongVersion() throws IOException {
+        assertRejected(patchInt(1, BinaryGraphFormat.VERSION + 1));
+    }
+
+    @Test
+    public void testRejectsNegativeCounts() throws IOException {
+        assertRejected(patchInt(2, -1));
+        assertRejected(patchInt(3, -5));
+    }
+
+    @Test
+    public void testRejectsTruncatedFile() throws IOException {
+        String bin = writeSample();
+        try (RandomAccessFile file = new RandomAccessFile(bin, "rw")) {
+            file.setLength(file.length() - 4);
+        }
+        assertRejected(bin);
+
+        try (RandomAccessFile file = new RandomAccessFile(bin, "rw")) {
+            file.setLength(10);
+        }
+        assertRejected(bin);
+    }
+
+    private String writeSample() throws IOException {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(1, 2, 5);
+        String bin = folder.newFile().getPath();
+        BinaryGraphFormat.write(graph, 0, "edge", bin);
+        return bin;
+    }
+
+    /**
+     * Overwrites the int at index, counted from the start of the file.
+     */
+    private String patchInt(int index, int value) throws IOException {
+        String bin = writeSample();
+        try (RandomAccessFile file = new RandomAccessFile(bin, "rw")) {
+            ByteBuffer bytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+            file.seek(index * 4L);
+            file.write(bytes.array());
+        }
+        return bin;
+    }
+
+    private static void assertRejected(String bin) {
+        try {
+            BinaryGraphFormat.load(bin);
+            fail("Expected IOException for " + new File(bin).getName());
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getN(), actual.getN());
+        assertEquals(expected.getM(), actual.getM());
+        for (int u = 0; u < expected.getN(); u++) {
+            assertEquals(expected.edgeStart(u), actual.edgeStart(u));
+            assertEquals(expected.edgeEnd(u), actual.edgeEnd(u));
+            for (int e = expected.edgeStart(u); e < expected.edgeEnd(u); e++) {
+                assertEquals(expected.edgeTarget(e), actual.edgeTarget(e));
+                assertEquals(expected.edgeWeight(e), actual.edgeWeight(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package graph;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for EdgeListLoader.
+ */
+public class EdgeListLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @Test
+    public void testPlainLinesAndComments() throws IOException {
+        String file = write("# header\n0 1\n1 2 7\n% note\n\n2 0 -3\n");
+        Graph graph = EdgeListLoader.load(file);
+
+        assertEquals(3, graph.getN());
+        assertEquals(3, graph.getM());
+        assertEdge(graph, 0, 0, 1, 1);
+        assertEdge(graph, 1, 0, 2, 7);
+        assertEdge(graph, 2, 0, 0, -3);
+    }
+
+    @Test
+    public void testCrlfAndMissingTrailingNewline() throws IOException {
+        Graph graph = EdgeListLoader.load(write("0 1 4\r\n1 2\r\n2 3 5"));
+
+        assertEquals(4, graph.getN());
+        assertEdge(graph, 0, 0, 1, 4);
+        assertEdge(graph, 1, 0, 2, 1);
+        assertEdge(graph, 2, 0, 3, 5);
+    }
+
+    @Test
+    public void testDimacs() throws IOException {
+        String file = write("c shortest path instance\np sp 5 3\na 1 2 10\na 2 3 20\nc trailer\na 1 3 5\n");
+        Graph graph = EdgeListLoader.load(file);
+
+        // The problem line fixes n even though vertices 3 and 4 (0-based) have no edges
+        assertEquals(5, graph.getN());
+        assertEquals(3, graph.getM());
+        assertEdge(graph, 0, 0, 1, 10);
+        assertEdge(graph, 0, 1, 2, 5);
+        assertEdge(graph, 1, 0, 2, 20);
+    }
+
+    @Test
+    public void testSmallChunksMatchSingleChunk() throws IOException {
+        Random random = new Random(2);
+        StringBuilder text = new StringBuilder("# random edges\n");
+        for (int i = 0; i < 500; i++) {
+            if (random.nextInt(10) == 0) {
+                text.append("c comment ").append(i).append('\n');
+            }
+            text.append(random.nextInt(100)).append(' ').append(random.nextInt(100));
+            if (random.nextBoolean()) {
+                text.append(' ').append(random.nextInt(1000));
+            }
+            text.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        String file = write(text.toString());
+
+        Graph single = EdgeListLoader.load(file, pool, Integer.MAX_VALUE);
+        for (long chunkSize : new long[]{1, 7, 64}) {
+            Graph chunked = EdgeListLoader.load(file, pool, chunkSize);
+            assertEquals(single.getN(), chunked.getN());
+            assertEquals(single.getM(), chunked.getM());
+            for (int u = 0; u < single.getN(); u++) {
+                assertEquals(single.edgeStart(u), chunked.edgeStart(u));
+                assertEquals(single.edgeEnd(u), chunked.edgeEnd(u));
+                for (int e = single.edgeStart(u); e < single.edgeEnd(u); e++) {
+                    assertEquals(single.edgeTarget(e), chunked.edgeTarget(e));
+                    assertEquals(single.edgeWeight(e), chunked.edgeWeight(e));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Graph graph = EdgeListLoader.load(write(""));
+        assertEquals(0, graph.getN());
+        assertEquals(0, graph.getM());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedLine() throws IOException {
+        EdgeListLoader.load(write("0 1\n1 x\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingTarget() throws IOException {
+        EdgeListLoader.load(write("0 1\n2\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testVertexBeyondDeclaredCount() throws IOException {
+        EdgeListLoader.load(write("p sp 2 1\na 1 3 4\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativeVertex() throws IOException {
+        EdgeListLoader.load(write("0 -1\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDimacsZeroId() throws IOException {
+        EdgeListLoader.load(write("p sp 2 1\na 0 1 4\n"));
+    }
+
+    private String write(String content) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file.getPath();
+    }
+
+    private static void assertEdge(Graph graph, int u, int index, int v, int w) {
+        int e = graph.edgeStart(u) + index;
+        assertTrue(e < graph.edgeEnd(u));
+        assertEquals(v, graph.edgeTarget(e));
+        assertEquals(w, graph.edgeWeight(e));
+    }
+}
@@ -0,0 +1,102 @@
+package graph;
+
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Unit tests for GraphLoader.
+ */
+public class GraphLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFieldsInAnyOrder() throws IOException {
+        String file = write("{\"source\": 2, \"edges\": [{\"w\": 5, \"v\": 1, \"u\": 0}, {\"v\": 2, \"u\": 1, \"w\": 3}],"
+                + " \"weight_model\": \"edge\", \"n\": 3}");
+        GraphLoader.GraphData data = GraphLoader.load(file);
+
+        assertEquals(3, data.graph.getN());
+        assertEquals(2, data.graph.getM());
+        assertEquals(2, data.source);
+        assertEquals("edge", data.weightModel);
+        assertFalse(data.graph.hasNodeWeights());
+        assertEdge(data.graph, 0, 0, 1, 5);
+        assertEdge(data.graph, 1, 0, 2, 3);
+        assertEquals(2, GraphLoader.getSourceFromJson(file));
+    }
+
+    @Test
+    public void testSkipsUnknownNestedValues() throws IOException {
+        String file = write("{\"meta\": {\"name\": \"x\", \"tags\": [1, {\"a\": [2, 3]}]}, \"n\": 2,"
+                + " \"edges\": [{\"u\": 0, \"label\": {\"k\": [true, null]}, \"v\": 1, \"w\": 4}],"
+                + " \"extra\": [[1], [2, [3]]], \"source\": 0}");
+        GraphLoader.GraphData data = GraphLoader.load(file);
+
+        assertEquals(2, data.graph.getN());
+        assertEquals(1, data.graph.getM());
+        assertEdge(data.graph, 0, 0, 1, 4);
+        assertEquals(0, data.source);
+    }
+
+    @Test
+    public void testNodeDurations() throws IOException {
+        // Edge weights may be omitted under the node model, even when it is declared last
+        String file = write("{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1}, {\"u\": 1, \"v\": 2}],"
+                + " \"source\": 0, \"durations\": [2, 3, 1], \"weight_model\": \"node\"}");
+        GraphLoader.GraphData data = GraphLoader.load(file);
+
+        assertEquals("node", data.weightModel);
+        assertTrue(data.graph.hasNodeWeights());
+        assertEquals(2, data.graph.getNodeWeight(0));
+        assertEquals(3, data.graph.getNodeWeight(1));
+        assertEquals(1, data.graph.getNodeWeight(2));
+        assertEquals(2, data.graph.getM());
+    }
+
+    @Test
+    public void testMissingFieldsRejected() throws IOException {
+        assertRejected("{\"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}], \"source\": 0}");
+        assertRejected("{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        assertRejected("{\"n\": 2, \"edges\": [{\"v\": 1, \"w\": 1}], \"source\": 0}");
+        assertRejected("{\"n\": 2, \"edges\": [{\"u\": 0, \"w\": 1}], \"source\": 0}");
+        assertRejected("{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}, {\"u\": 1, \"v\": 0}], \"source\": 0}");
+        assertRejected("{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1}], \"source\": 0, \"weight_model\": \"edge\"}");
+    }
+
+    @Test
+    public void testNodeModelNeedsDurations() throws IOException {
+        assertRejected("{\"n\": 2, \"edges\": [], \"source\": 0, \"weight_model\": \"node\"}");
+        assertRejected("{\"n\": 2, \"edges\": [], \"source\": 0, \"weight_model\": \"node\", \"durations\": [1]}");
+    }
+
+    private void assertRejected(String content) throws IOException {
+        String file = write(content);
+        try {
+            GraphLoader.load(file);
+            fail("Expected IOException for " + content);
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private String write(String content) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.getPath();
+    }
+
+    private static void assertEdge(Graph graph, int u, int index, int v, int w) {
+        int e = graph.edgeStart(u) + index;
+        assertTrue(e < graph.edgeEnd(u));
+        assertEquals(v, graph.edgeTarget(e));
+        assertEquals(w, graph.edgeWeight(e));
+    }
+}
@@ -0,0 +1,191 @@
+package graph;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for Graph.
+ */
+public class GraphTest {
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        graph = new Graph(5);
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(2, 1, 7);
+        graph.addEdge(3, 1, 2);
+        graph.addEdge(1, 4, 3);
+        graph.addEdge(4, 0, 5);
+        graph.addEdge(0, 1, 6);  // parallel edge
+    }
+
+    @Test
+    public void testInEdgesMatchOutEdges() {
+        assertReverseIndex(graph);
+        assertEquals(4, graph.inDegree(1));
+        assertEquals(0, graph.inDegree(3));
+
+        Random random = new Random(7);
+        Graph large = new Graph(50);
+        for (int i = 0; i < 400; i++) {
+            large.addEdge(random.nextInt(50), random.nextInt(50), random.nextInt(100));
+        }
+        assertReverseIndex(large);
+    }
+
+    @Test
+    public void testTransposeTwiceGivesSameEdges() {
+        Graph transposed = graph.transpose();
+        assertEquals(graph.getN(), transposed.getN());
+        assertEquals(graph.getM(), transposed.getM());
+        for (int v = 0; v < graph.getN(); v++) {
+            assertEquals(graph.inDegree(v), transposed.outDegree(v));
+            assertEquals(graph.outDegree(v), transposed.inDegree(v));
+        }
+
+        // In-edges are ordered by source, so the round trip sorts each out-list by target
+        assertEquals(sortedEdges(graph), sortedEdges(transposed.transpose()));
+    }
+
+    @Test
+    public void testReverseIndexInvalidatedByChanges() {
+        assertEquals(4, graph.inDegree(1));
+
+        graph.addEdge(4, 1, 9);
+        assertEquals(5, graph.inDegree(1));
+        assertReverseIndex(graph);
+
+        assertTrue(graph.removeEdge(2, 1));
+        assertEquals(4, graph.inDegree(1));
+        assertReverseIndex(graph);
+
+        // Weights are read through the forward edge, so an update shows up without a rebuild
+        assertTrue(graph.setEdgeWeight(3, 1, 11));
+        assertReverseIndex(graph);
+        boolean found = false;
+        for (int i = graph.inEdgeStart(1); i < graph.inEdgeEnd(1); i++) {
+            if (graph.inEdgeSource(i) == 3) {
+                assertEquals(11, graph.inEdgeWeight(i));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testPendingEdgesKeepInsertionOrder() {
+        Graph g = new Graph(4);
+        g.addEdge(1, 2, 1);
+        g.addEdge(0, 3, 2);
+        g.addEdge(1, 0, 3);
+        assertEquals(3, g.getM());  // builds the CSR arrays
+
+        // Buffered after the build; merged behind the existing edges of each vertex
+        g.addEdge(1, 3, 4);
+        g.addEdge(2, 0, 5);
+        g.addEdge(1, 1, 6);
+        g.addEdge(0, 2, 7);
+        assertEquals(7, g.getM());
+        assertOutEdges(g, 0, new int[][]{{3, 2}, {2, 7}});
+        assertOutEdges(g, 1, new int[][]{{2, 1}, {0, 3}, {3, 4}, {1, 6}});
+        assertOutEdges(g, 2, new int[][]{{0, 5}});
+        assertOutEdges(g, 3, new int[][]{});
+    }
+
+    @Test
+    public void testMixedAddsAndRemovesMatchModel() {
+        Random random = new Random(13);
+        int n = 12;
+        Graph g = new Graph(n);
+        List<List<int[]>> model = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            model.add(new ArrayList<>());
+        }
+
+        for (int step = 0; step < 2000; step++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (random.nextInt(3) == 0) {
+                // removeEdge drops the first u->v in out-edge order
+                List<int[]> edges = model.get(u);
+                int index = -1;
+                for (int i = 0; i < edges.size() && index < 0; i++) {
+                    if (edges.get(i)[0] == v) {
+                        index = i;
+                    }
+                }
+                assertEquals(index >= 0, g.removeEdge(u, v));
+                if (index >= 0) {
+                    edges.remove(index);
+                }
+            } else {
+                int w = random.nextInt(100);
+                g.addEdge(u, v, w);
+                model.get(u).add(new int[]{v, w});
+            }
+
+            // Read the layout only now and then, so several adds stay buffered in between
+            if (step % 7 == 0) {
+                int m = 0;
+                for (int x = 0; x < n; x++) {
+                    assertEquals(m, g.edgeStart(x));
+                    assertOutEdges(g, x, model.get(x).toArray(new int[0][]));
+                    m += model.get(x).size();
+                }
+                assertEquals(m, g.getM());
+                assertEquals(m, g.edgeEnd(n - 1));
+            }
+        }
+    }
+
+    private static void assertOutEdges(Graph g, int u, int[][] expected) {
+        assertEquals(expected.length, g.edgeEnd(u) - g.edgeStart(u));
+        for (int i = 0; i < expected.length; i++) {
+            int e = g.edgeStart(u) + i;
+            assertEquals(expected[i][0], g.edgeTarget(e));
+            assertEquals(expected[i][1], g.edgeWeight(e));
+        }
+    }
+
+    /**
+     * Checks that every forward edge appears exactly once among the in-edges of its target,
+     * with the right source and weight, and that in-edges are ordered by source.
+     */
+    private static void assertReverseIndex(Graph g) {
+        int m = g.getM();
+        boolean[] seen = new boolean[m];
+        int total = 0;
+        for (int v = 0; v < g.getN(); v++) {
+            int previous = -1;
+            for (int i = g.inEdgeStart(v); i < g.inEdgeEnd(v); i++) {
+                int u = g.inEdgeSource(i);
+                int e = g.inEdgeId(i);
+                assertTrue(u >= previous);
+                previous = u;
+                assertTrue(e >= g.edgeStart(u) && e < g.edgeEnd(u));
+                assertEquals(v, g.edgeTarget(e));
+                assertEquals(g.edgeWeight(e), g.inEdgeWeight(i));
+                assertFalse(seen[e]);
+                seen[e] = true;
+                total++;
+            }
+        }
+        assertEquals(m, total);
+    }
+
+    private static List<String> sortedEdges(Graph g) {
+        List<String> edges = new ArrayList<>();
+        for (Graph.EdgeData edge : g.getAllEdges()) {
+            edges.add(edge.u + "->" + edge.v + ":" + edge.w);
+        }
+        edges.sort(null);
+        return edges;
+    }
+}
@@ -0,0 +1,109 @@
+package graph;
+
+import graph.topo.TopologicalSort;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for MetricsRegistry and LatencyHistogram.
+ */
+public class MetricsRegistryTest {
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count);
+        assertEquals(1_000_000, snapshot.max);
+        assertEquals(500_000, snapshot.p50, 500_000 * 0.035);
+        assertEquals(990_000, snapshot.p99, 990_000 * 0.035);
+        assertTrue(snapshot.p50 >= 500_000);
+        assertTrue(snapshot.p999 <= snapshot.max);
+
+        for (long value = 0; value < 100_000; value += 7) {
+            assertTrue(LatencyHistogram.bucketUpperBound(LatencyHistogram.bucket(value)) >= value);
+        }
+    }
+
+    @Test
+    public void testAccumulatesAcrossRuns() {
+        Graph dag = new Graph(4);
+        dag.addEdge(0, 1, 1);
+        dag.addEdge(1, 2, 1);
+        dag.addEdge(0, 3, 1);
+        TopologicalSort topo = new TopologicalSort(dag, registry.forOperation("kahn"));
+        for (int run = 0; run < 5; run++) {
+            topo.kahn();
+        }
+        // The handle still shows the last run on its own
+        assertEquals(4, topo.getMetrics().getQueuePops());
+
+        MetricsRegistry.Snapshot snapshot = registry.snapshotAndReset();
+        assertEquals(20, snapshot.queuePops);
+        assertEquals(20, snapshot.queuePushes);
+        assertEquals(5, snapshot.latencies.get("kahn").count);
+
+        MetricsRegistry.Snapshot empty = registry.snapshot();
+        assertEquals(0, empty.queuePops);
+        assertEquals(0, empty.latencies.get("kahn").count);
+    }
+
+    @Test
+    public void testConcurrentFlushesAreCountedOnce() throws InterruptedException {
+        int threads = 4;
+        int runs = 20_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                Metrics metrics = registry.forOperation("query");
+                for (int run = 0; run < runs; run++) {
+                    metrics.reset();
+                    metrics.start();
+                    metrics.incrementRelaxations();
+                    metrics.addEdgesTraversed(2);
+                    metrics.stop();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long relaxations = 0;
+        long edges = 0;
+        long latencies = 0;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread worker : workers) {
+                running |= worker.isAlive();
+            }
+            MetricsRegistry.Snapshot snapshot = registry.snapshotAndReset();
+            relaxations += snapshot.relaxations;
+            edges += snapshot.edgesTraversed;
+            LatencyHistogram.Snapshot latency = snapshot.latencies.get("query");
+            latencies += latency != null ? latency.count : 0;
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        MetricsRegistry.Snapshot rest = registry.snapshotAndReset();
+
+        assertEquals((long) threads * runs, relaxations + rest.relaxations);
+        assertEquals(2L * threads * runs, edges + rest.edgesTraversed);
+        assertEquals((long) threads * runs, latencies + rest.latencies.get("query").count);
+    }
+}
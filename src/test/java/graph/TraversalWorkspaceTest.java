@@ -0,0 +1,39 @@
+package graph;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TraversalWorkspace.
+ */
+public class TraversalWorkspaceTest {
+
+    @Test
+    public void testNewWorkspaceReadsAsReset() {
+        TraversalWorkspace workspace = new TraversalWorkspace(4);
+        for (int v = 0; v < 4; v++) {
+            assertFalse(workspace.isMarked(v));
+            assertEquals(-1, workspace.getParent(v));
+            assertEquals(0, workspace.getDistance(v));
+        }
+        assertEquals(2, workspace.decrementDegree(0, 3));
+        assertTrue(workspace.mark(1));
+        assertTrue(workspace.isMarked(1));
+    }
+
+    @Test
+    public void testResetClearsPreviousRun() {
+        TraversalWorkspace workspace = new TraversalWorkspace(4);
+        workspace.mark(2);
+        workspace.setDistance(3, 7, 2);
+        workspace.decrementDegree(1, 2);
+
+        workspace.resetMarks();
+        workspace.resetDistances(Integer.MAX_VALUE);
+        workspace.resetDegrees();
+        assertFalse(workspace.isMarked(2));
+        assertEquals(Integer.MAX_VALUE, workspace.getDistance(3));
+        assertEquals(-1, workspace.getParent(3));
+        assertEquals(1, workspace.decrementDegree(1, 2));
+    }
+}
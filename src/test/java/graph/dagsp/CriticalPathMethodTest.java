@@ -0,0 +1,88 @@
+package graph.dagsp;
+
+import graph.Graph;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CriticalPathMethod.
+ */
+public class CriticalPathMethodTest {
+    private Graph dag;
+
+    @Before
+    public void setUp() {
+        // Two branches from 0 joining at 3, plus a short side branch 0 -> 4
+        dag = new Graph(5);
+        dag.addEdge(0, 1, 3);
+        dag.addEdge(1, 3, 4);
+        dag.addEdge(0, 2, 2);
+        dag.addEdge(2, 3, 1);
+        dag.addEdge(0, 4, 1);
+    }
+
+    @Test
+    public void testSchedule() {
+        CriticalPathMethod.Schedule schedule = new CriticalPathMethod(dag).compute();
+
+        assertEquals(7, schedule.projectLength);
+        assertArrayEquals(new int[]{0, 3, 2, 7, 1}, schedule.earliestStart);
+        assertArrayEquals(new int[]{0, 3, 6, 7, 7}, schedule.latestStart);
+        assertArrayEquals(new int[]{0, 0, 4, 0, 6}, schedule.totalSlack);
+        // 2 can slip 4 before delaying 3; 4 has no successor and can slip to the project end
+        assertArrayEquals(new int[]{0, 0, 4, 0, 6}, schedule.freeSlack);
+        assertArrayEquals(new int[]{0, 1, 3}, schedule.criticalVertices);
+        assertTrue(schedule.isCritical(1));
+        assertFalse(schedule.isCritical(2));
+    }
+
+    @Test
+    public void testFreeSlackSmallerThanTotalSlack() {
+        // Chain 2 -> 3 -> 4 runs beside the long edge 0 -> 1: delaying 2 eats into 3's slack
+        // right away, so 2 has no free slack even though the chain as a whole has 7
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 10);
+        g.addEdge(0, 2, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 1);
+        g.addEdge(1, 4, 0);
+        CriticalPathMethod.Schedule schedule = new CriticalPathMethod(g).compute();
+
+        assertEquals(10, schedule.projectLength);
+        assertEquals(7, schedule.totalSlack[2]);
+        assertEquals(0, schedule.freeSlack[2]);
+        assertEquals(7, schedule.freeSlack[3]);
+        assertArrayEquals(new int[]{0, 1, 4}, schedule.criticalVertices);
+    }
+
+    @Test
+    public void testMatchesLongestPath() {
+        DAGQueryPlan plan = DAGQueryPlan.compile(dag);
+        CriticalPathMethod.Schedule schedule = new CriticalPathMethod(plan).compute();
+        DAGShortestPath.CriticalPathResult critical = new DAGShortestPath(plan).findCriticalPath(0);
+        assertEquals(critical.length, schedule.projectLength);
+        for (int v : critical.path) {
+            assertTrue(schedule.isCritical(v));
+        }
+    }
+
+    @Test
+    public void testNodeWeightedSchedule() {
+        // Tasks 0 (2), 1 (3), 2 (1), 3 (4), 4 (5): 0 -> 1 -> 3, 0 -> 2 -> 3, 4 independent
+        Graph tasks = new Graph(5);
+        tasks.addEdge(0, 1, 0);
+        tasks.addEdge(0, 2, 0);
+        tasks.addEdge(1, 3, 0);
+        tasks.addEdge(2, 3, 0);
+        tasks.setNodeWeights(new int[]{2, 3, 1, 4, 5});
+        CriticalPathMethod.Schedule schedule = new CriticalPathMethod(tasks).compute();
+
+        assertEquals(9, schedule.projectLength);
+        assertArrayEquals(new int[]{0, 2, 2, 5, 0}, schedule.earliestStart);
+        assertArrayEquals(new int[]{0, 2, 4, 5, 4}, schedule.latestStart);
+        assertArrayEquals(new int[]{0, 0, 2, 0, 4}, schedule.totalSlack);
+        assertArrayEquals(new int[]{0, 0, 2, 0, 4}, schedule.freeSlack);
+        assertArrayEquals(new int[]{0, 1, 3}, schedule.criticalVertices);
+    }
+}
@@ -0,0 +1,160 @@
+package graph.dagsp;
+
+import graph.Graph;
+import graph.TraversalWorkspace;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for DAGQueryPlan.
+ */
+public class DAGQueryPlanTest {
+    private Graph dag;
+
+    @Before
+    public void setUp() {
+        dag = new Graph(6);
+        dag.addEdge(0, 1, 5);
+        dag.addEdge(0, 2, 3);
+        dag.addEdge(1, 3, 2);
+        dag.addEdge(2, 3, 1);
+        dag.addEdge(2, 4, 4);
+        dag.addEdge(3, 5, 2);
+        dag.addEdge(4, 5, 3);
+    }
+
+    @Test
+    public void testRepeatedQueries() {
+        DAGQueryPlan plan = DAGQueryPlan.compile(dag);
+        int[] distances = new int[6];
+        int[] parent = new int[6];
+
+        plan.shortestPaths(0, distances, parent);
+        assertArrayEquals(new int[]{0, 5, 3, 4, 7, 6}, distances);
+        assertEquals(2, parent[3]);
+
+        plan.longestPaths(0, distances, parent);
+        assertArrayEquals(new int[]{0, 5, 3, 7, 7, 10}, distances);
+
+        plan.shortestPaths(2, distances, parent);
+        assertEquals(DAGShortestPath.INF, distances[0]);
+        assertEquals(DAGShortestPath.INF, distances[1]);
+        assertEquals(1, distances[3]);
+        assertEquals(3, distances[5]);
+    }
+
+    @Test
+    public void testSharedPlanMatchesSelfCompiled() {
+        DAGQueryPlan plan = DAGQueryPlan.compile(dag, Arrays.asList(0, 2, 4, 1, 3, 5));
+        for (int s = 0; s < 6; s++) {
+            assertArrayEquals(new DAGShortestPath(dag).shortestPaths(s), new DAGShortestPath(plan).shortestPaths(s));
+            assertArrayEquals(new DAGShortestPath(dag).longestPaths(s), new DAGShortestPath(plan).longestPaths(s));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonTopologicalOrder() {
+        DAGQueryPlan.compile(dag, Arrays.asList(1, 0, 2, 3, 4, 5));
+    }
+
+    @Test
+    public void testRecompilesAfterGraphChange() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        DAGQueryPlan before = sp.plan();
+        assertSame(before, sp.plan());
+
+        dag.addEdge(0, 5, 1);
+        assertFalse(before.isCurrent());
+        assertEquals(1, sp.shortestPaths(0)[5]);
+        assertNotSame(before, sp.plan());
+    }
+
+    @Test
+    public void testBatchMatchesSingleSource() {
+        // Random DAG with negative weights; edges go from lower to higher vertex IDs
+        Random random = new Random(42);
+        int n = 300;
+        Graph g = new Graph(n);
+        for (int i = 0; i < 1500; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - 1 - u);
+            g.addEdge(u, v, random.nextInt(21) - 5);
+        }
+        int[] sources = new int[40];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(n);
+        }
+        sources[1] = sources[0];
+
+        DAGQueryPlan plan = DAGQueryPlan.compile(g);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            int[][] shortest = plan.shortestPaths(sources, pool).distances;
+            int[][] longest = plan.longestPaths(sources, pool).distances;
+            DAGShortestPath sp = new DAGShortestPath(plan);
+            for (int i = 0; i < sources.length; i++) {
+                assertArrayEquals(sp.shortestPaths(sources[i]), shortest[i]);
+                assertArrayEquals(sp.longestPaths(sources[i]), longest[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPointToPointTouchesOnlyRelevantSlice() {
+        // Chain 0 -> 1 -> ... -> 9 with a side branch 1 -> 20 -> ... -> 29 that cannot reach 4
+        Graph g = new Graph(30);
+        for (int v = 0; v < 9; v++) {
+            g.addEdge(v, v + 1, 1);
+        }
+        g.addEdge(1, 20, 1);
+        for (int v = 20; v < 29; v++) {
+            g.addEdge(v, v + 1, 1);
+        }
+        g.addEdge(0, 3, 5);
+        DAGQueryPlan plan = DAGQueryPlan.compile(g);
+        TraversalWorkspace workspace = new TraversalWorkspace(30);
+
+        long relaxations = plan.shortestPath(1, 4, workspace);
+        assertEquals(3, workspace.getDistance(4));
+        assertEquals(3, workspace.getParent(4));
+        assertEquals(3, relaxations);  // 1->2, 2->3, 3->4 only
+        assertFalse(workspace.isMarked(0));
+        assertFalse(workspace.isMarked(20));
+
+        plan.longestPath(0, 4, workspace);
+        assertEquals(6, workspace.getDistance(4));
+
+        plan.shortestPath(20, 4, workspace);
+        assertEquals(DAGShortestPath.INF, workspace.getDistance(4));
+        plan.shortestPath(5, 2, workspace);
+        assertEquals(DAGShortestPath.INF, workspace.getDistance(2));
+    }
+
+    @Test
+    public void testPointToPointMatchesFullQuery() {
+        Random random = new Random(3);
+        int n = 200;
+        Graph g = new Graph(n);
+        for (int i = 0; i < 600; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(Math.min(20, n - 1 - u));
+            g.addEdge(u, v, random.nextInt(15) - 3);
+        }
+        DAGShortestPath sp = new DAGShortestPath(g);
+        DAGShortestPath point = new DAGShortestPath(g);
+        point.setCacheCapacity(0);
+        for (int q = 0; q < 200; q++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            assertEquals(sp.shortestPaths(s)[t], point.shortestDistance(s, t));
+            assertEquals(sp.longestPaths(s)[t], point.longestDistance(s, t));
+        }
+    }
+}
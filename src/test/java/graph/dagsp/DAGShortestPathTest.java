@@ -1,11 +1,17 @@
 package graph.dagsp;
 
 import graph.Graph;
+import graph.NoOpMetrics;
+import graph.TraversalWorkspace;
 import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Unit tests for DAGShortestPath algorithm.
@@ -79,4 +85,245 @@ public class DAGShortestPathTest {
         assertEquals(0, (int) path.get(0));
         assertEquals(5, (int) path.get(path.size() - 1));
     }
+
+    @Test
+    public void testWorkspaceMatchesArrayResults() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        TraversalWorkspace workspace = new TraversalWorkspace(dag.getN());
+
+        // Repeated runs on one workspace must not see stale values from earlier runs
+        for (int source = 0; source < dag.getN(); source++) {
+            sp.shortestPaths(source, workspace);
+            assertArrayEquals(sp.shortestPaths(source), workspace.copyDistances(dag.getN()));
+            sp.longestPaths(source, workspace);
+            assertArrayEquals(sp.longestPaths(source), workspace.copyDistances(dag.getN()));
+        }
+
+        sp.shortestPaths(0, workspace);
+        assertEquals(2, workspace.getParent(4)); // 0->2->4
+        assertEquals(-1, workspace.getParent(0));
+    }
+
+    @Test
+    public void testResultCache() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        int[] first = sp.shortestPaths(0);
+        assertEquals(1, sp.getMetrics().getCacheMisses());
+
+        int[] second = sp.shortestPaths(0);
+        assertEquals(1, sp.getMetrics().getCacheHits());
+        assertEquals(0, sp.getMetrics().getRelaxations());
+        assertArrayEquals(first, second);
+
+        // Longest paths from the same source are cached separately
+        sp.longestPaths(0);
+        assertEquals(1, sp.getMetrics().getCacheMisses());
+        assertEquals(2, sp.getCachedResultCount());
+
+        // Point queries are answered from the cached arrays
+        assertEquals(Arrays.asList(0, 2, 3, 5), sp.reconstructShortestPath(0, 5));
+        assertEquals(1, sp.getMetrics().getCacheHits());
+
+        // A graph change invalidates the cache
+        dag.addEdge(0, 5, 1);
+        assertEquals(1, sp.shortestPaths(0)[5]);
+        assertEquals(1, sp.getMetrics().getCacheMisses());
+        assertEquals(1, sp.getCachedResultCount());
+    }
+
+    @Test
+    public void testCachedPointQueriesKeepLastResult() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        sp.shortestPaths(0);
+        int[] longest = sp.longestPaths(0);
+
+        // A hit on the shortest-path entry must not replace the longest-path result
+        assertEquals(Arrays.asList(0, 2, 3, 5), sp.reconstructShortestPath(0, 5));
+        assertArrayEquals(longest, sp.getDistances());
+        assertEquals(Arrays.asList(0, 2, 4, 5), sp.reconstructPath(0, 5));
+
+        // Per-query metrics restart each time; the instance totals keep counting
+        assertEquals(6, sp.shortestDistance(0, 5));
+        assertEquals(1, sp.getMetrics().getCacheHits());
+        assertEquals(2, sp.getCacheHits());
+        assertEquals(2, sp.getCacheMisses());
+        sp.shortestDistance(1, 5);
+        assertEquals(0, sp.getMetrics().getCacheHits());
+        assertEquals(2, sp.getCacheHits());
+        assertEquals(3, sp.getCacheMisses());
+    }
+
+    @Test
+    public void testResultCacheEvictsLeastRecentlyUsed() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        // Room for two results of a 6-vertex graph
+        sp.setCacheCapacity(2 * (4L * 12 + 96));
+        sp.shortestPaths(0);
+        sp.shortestPaths(1);
+        sp.shortestPaths(0);
+        sp.shortestPaths(2);  // evicts source 1
+        assertEquals(2, sp.getCachedResultCount());
+
+        sp.shortestPaths(0);
+        assertEquals(1, sp.getMetrics().getCacheHits());
+        sp.shortestPaths(1);
+        assertEquals(1, sp.getMetrics().getCacheMisses());
+
+        sp.setCacheCapacity(0);
+        assertEquals(0, sp.getCachedResultCount());
+    }
+
+    @Test
+    public void testPathCacheMatchesReferenceLru() {
+        // Churn enough keys through the cache to grow, evict and reuse slots
+        long entryBytes = new PathCache.Entry(new int[1], new int[1]).bytes();
+        PathCache cache = new PathCache(20 * entryBytes);
+        LinkedHashMap<Long, PathCache.Entry> expected =
+                new LinkedHashMap<>(16, 0.75f, true);
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            int source = random.nextInt(64);
+            boolean longest = random.nextBoolean();
+            Long key = PathCache.key(source, longest);
+            if (random.nextInt(3) == 0) {
+                PathCache.Entry entry = new PathCache.Entry(new int[1], new int[1]);
+                cache.put(source, longest, entry);
+                expected.put(key, entry);
+                if (expected.size() > 20) {
+                    expected.remove(expected.keySet().iterator().next());
+                }
+            } else {
+                assertSame(expected.get(key), cache.get(source, longest));
+            }
+            assertEquals(expected.size(), cache.size());
+            assertEquals(expected.size() * entryBytes, cache.getSizeBytes());
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(0, false));
+    }
+
+    @Test
+    public void testNodeWeights() {
+        // Durations replace edge weights: a path's length is the sum of its vertex durations
+        dag.setNodeWeights(new int[]{1, 2, 10, 3, 1, 4});
+        DAGShortestPath sp = new DAGShortestPath(dag);
+
+        int[] shortest = sp.shortestPaths(0);
+        assertArrayEquals(new int[]{1, 3, 11, 6, 12, 10}, shortest);
+        assertEquals(Arrays.asList(0, 1, 3, 5), sp.reconstructShortestPath(0, 5));
+        assertEquals(10, sp.shortestDistance(0, 5));
+
+        DAGShortestPath.CriticalPathResult critical = sp.findCriticalPath(0);
+        assertEquals(Arrays.asList(0, 2, 3, 5), critical.path);
+        assertEquals(18, critical.length);
+    }
+
+    @Test
+    public void testUpdateEdgeWeightsRepairsLastResult() {
+        DAGQueryPlan plan = DAGQueryPlan.compile(dag);
+        DAGShortestPath sp = new DAGShortestPath(plan);
+        DAGShortestPath other = new DAGShortestPath(plan);
+        assertArrayEquals(new int[]{0, 5, 3, 4, 7, 6}, sp.shortestPaths(0));
+        other.shortestPaths(0);
+
+        // 2 -> 3 gets slower: 3 and 5 now come through 1
+        sp.updateEdgeWeights(Arrays.asList(new Graph.EdgeData(2, 3, 5)));
+        assertArrayEquals(new int[]{0, 5, 3, 7, 7, 9}, sp.getDistances());
+        assertEquals(Arrays.asList(0, 1, 3, 5), sp.reconstructPath(0, 5));
+        assertTrue(sp.getMetrics().getRelaxations() < dag.getM());
+        assertSame(plan, sp.plan());
+
+        // The repaired result is served from the cache; the other instance drops its stale copy
+        assertArrayEquals(new int[]{0, 5, 3, 7, 7, 9}, sp.shortestPaths(0));
+        assertEquals(1, sp.getMetrics().getCacheHits());
+        assertArrayEquals(new int[]{0, 5, 3, 7, 7, 9}, other.shortestPaths(0));
+        assertEquals(1, other.getMetrics().getCacheMisses());
+
+        try {
+            sp.updateEdgeWeights(Arrays.asList(new Graph.EdgeData(5, 0, 1)));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFailedBatchChangesNothing() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        sp.shortestPaths(0);
+        long version = dag.getVersion();
+
+        // The valid first update must not be applied when a later one names a missing edge
+        try {
+            sp.updateEdgeWeights(Arrays.asList(new Graph.EdgeData(2, 3, 5), new Graph.EdgeData(5, 0, 1)));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            sp.updateEdgeWeights(Arrays.asList(new Graph.EdgeData(2, 3, 5), new Graph.EdgeData(2, 6, 1)));
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        assertEquals(version, dag.getVersion());
+        assertEquals(1, dag.edgeWeight(dag.edgeStart(2)));
+        assertArrayEquals(new int[]{0, 5, 3, 4, 7, 6}, sp.getDistances());
+        assertArrayEquals(new int[]{0, 5, 3, 4, 7, 6}, new DAGShortestPath(dag).shortestPaths(0));
+
+        // The instance still repairs correctly afterwards
+        sp.updateEdgeWeights(Arrays.asList(new Graph.EdgeData(2, 3, 5)));
+        assertArrayEquals(new int[]{0, 5, 3, 7, 7, 9}, sp.getDistances());
+    }
+
+    @Test
+    public void testRepairMatchesRecomputation() {
+        Random random = new Random(3);
+        int n = 200;
+        Graph graph = new Graph(n);
+        List<Graph.EdgeData> edges = new ArrayList<>();
+        for (int i = 0; i < 800; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(Math.min(20, n - 1 - u));
+            graph.addEdge(u, v, 1 + random.nextInt(10));
+            edges.add(new Graph.EdgeData(u, v, 0));
+        }
+
+        for (boolean longest : new boolean[]{false, true}) {
+            DAGShortestPath sp = new DAGShortestPath(graph);
+            int source = random.nextInt(10);
+            if (longest) {
+                sp.longestPaths(source);
+            } else {
+                sp.shortestPaths(source);
+            }
+            for (int round = 0; round < 50; round++) {
+                List<Graph.EdgeData> updates = new ArrayList<>();
+                for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                    Graph.EdgeData edge = edges.get(random.nextInt(edges.size()));
+                    updates.add(new Graph.EdgeData(edge.u, edge.v, 1 + random.nextInt(10)));
+                }
+                sp.updateEdgeWeights(updates);
+
+                DAGShortestPath fresh = new DAGShortestPath(graph);
+                int[] expected = longest ? fresh.longestPaths(source) : fresh.shortestPaths(source);
+                assertArrayEquals(expected, sp.getDistances());
+                for (int v = 0; v < n; v++) {
+                    assertEquals(fresh.reconstructPath(source, v), sp.reconstructPath(source, v));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoOpMetrics() {
+        DAGShortestPath sp = new DAGShortestPath(dag, NoOpMetrics.INSTANCE);
+        assertArrayEquals(new int[]{0, 5, 3, 4, 7, 6}, sp.shortestPaths(0));
+        assertArrayEquals(new int[]{0, 5, 3, 4, 7, 6}, sp.shortestPaths(0));
+        assertEquals(1, sp.getCachedResultCount());
+        assertEquals(2, sp.findCriticalPaths(0, 2).size());
+        assertEquals(0, sp.getMetrics().getCacheHits());
+        assertEquals(0, sp.getMetrics().getRelaxations());
+    }
 }
@@ -0,0 +1,132 @@
+package graph.dagsp;
+
+import graph.Graph;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for TopKPaths.
+ */
+public class TopKPathsTest {
+    private Graph dag;
+
+    @Before
+    public void setUp() {
+        dag = new Graph(6);
+        dag.addEdge(0, 1, 5);
+        dag.addEdge(0, 2, 3);
+        dag.addEdge(1, 3, 2);
+        dag.addEdge(2, 3, 1);
+        dag.addEdge(2, 4, 4);
+        dag.addEdge(3, 5, 2);
+        dag.addEdge(4, 5, 3);
+    }
+
+    @Test
+    public void testLongestPathsToTarget() {
+        List<DAGShortestPath.CriticalPathResult> paths = new TopKPaths(dag).longestPaths(0, 5, 5);
+
+        // Only three paths reach 5: 0-2-4-5 (10), 0-1-3-5 (9), 0-2-3-5 (6)
+        assertEquals(3, paths.size());
+        assertEquals(Arrays.asList(0, 2, 4, 5), paths.get(0).path);
+        assertEquals(10, paths.get(0).length);
+        assertEquals(Arrays.asList(0, 1, 3, 5), paths.get(1).path);
+        assertEquals(9, paths.get(1).length);
+        assertEquals(Arrays.asList(0, 2, 3, 5), paths.get(2).path);
+        assertEquals(6, paths.get(2).length);
+    }
+
+    @Test
+    public void testShortestPathsToTarget() {
+        List<DAGShortestPath.CriticalPathResult> paths = new TopKPaths(dag).shortestPaths(0, 5, 2);
+
+        assertEquals(2, paths.size());
+        assertEquals(Arrays.asList(0, 2, 3, 5), paths.get(0).path);
+        assertEquals(6, paths.get(0).length);
+        assertEquals(9, paths.get(1).length);
+    }
+
+    @Test
+    public void testTopOneMatchesCriticalPath() {
+        DAGShortestPath sp = new DAGShortestPath(dag);
+        DAGShortestPath.CriticalPathResult critical = sp.findCriticalPath(0);
+        List<DAGShortestPath.CriticalPathResult> top = sp.findCriticalPaths(0, 1);
+
+        assertEquals(1, top.size());
+        assertEquals(critical.length, top.get(0).length);
+        assertEquals(critical.path, top.get(0).path);
+    }
+
+    @Test
+    public void testOverflowingLengthRejected() {
+        Graph chain = new Graph(3);
+        chain.addEdge(0, 1, Integer.MAX_VALUE);
+        chain.addEdge(1, 2, Integer.MAX_VALUE);
+        try {
+            new TopKPaths(chain).longestPaths(0, 2, 1);
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException e) {
+            // expected
+        }
+        assertEquals(Integer.MAX_VALUE, new TopKPaths(chain).longestPaths(0, 1, 1).get(0).length);
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        int n = 40;
+        Graph g = new Graph(n);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 120; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(Math.min(6, n - 1 - u));
+            if (seen.add((long) u * n + v)) {
+                g.addEdge(u, v, random.nextInt(20) - 4);
+            }
+        }
+
+        // Lengths of all paths from 0 to a vertex without out-edges
+        List<Integer> all = new ArrayList<>();
+        enumerate(g, 0, 0, all);
+        all.sort(Collections.reverseOrder());
+
+        int k = 25;
+        TopKPaths topK = new TopKPaths(g);
+        List<DAGShortestPath.CriticalPathResult> longest = topK.longestPaths(0, k);
+        assertEquals(Math.min(k, all.size()), longest.size());
+        for (int i = 0; i < longest.size(); i++) {
+            assertEquals(all.get(i).intValue(), longest.get(i).length);
+            assertEquals(longest.get(i).length, pathLength(g, longest.get(i).path));
+        }
+
+        Collections.reverse(all);
+        List<DAGShortestPath.CriticalPathResult> shortest = topK.shortestPaths(0, k);
+        for (int i = 0; i < shortest.size(); i++) {
+            assertEquals(all.get(i).intValue(), shortest.get(i).length);
+        }
+    }
+
+    private static void enumerate(Graph g, int u, int length, List<Integer> out) {
+        if (g.outDegree(u) == 0) {
+            out.add(length);
+        }
+        for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+            enumerate(g, g.edgeTarget(e), length + g.edgeWeight(e), out);
+        }
+    }
+
+    private static int pathLength(Graph g, List<Integer> path) {
+        int length = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            for (int e = g.edgeStart(path.get(i)); e < g.edgeEnd(path.get(i)); e++) {
+                if (g.edgeTarget(e) == path.get(i + 1)) {
+                    length += g.edgeWeight(e);
+                }
+            }
+        }
+        return length;
+    }
+}
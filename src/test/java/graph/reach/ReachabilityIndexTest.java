@@ -0,0 +1,93 @@
+package graph.reach;
+
+import graph.CountingMetrics;
+import graph.Graph;
+import graph.NoOpMetrics;
+import graph.scc.KosarajuSCC;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for ReachabilityIndex.
+ */
+public class ReachabilityIndexTest {
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        // Random graph with a few cycles, so components have several members
+        Random random = new Random(11);
+        int n = 400;
+        graph = new Graph(n);
+        for (int i = 0; i < 700; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u != v && (u < v || random.nextInt(20) == 0)) {
+                graph.addEdge(u, v, 1);
+            }
+        }
+    }
+
+    @Test
+    public void testDenseIndexMatchesTraversal() {
+        ReachabilityIndex index = new ReachabilityIndex(new KosarajuSCC(graph).buildCondensation());
+        assertTrue(index.isDense());
+        assertMatchesTraversal(index);
+    }
+
+    @Test
+    public void testLabelIndexMatchesTraversal() {
+        ReachabilityIndex index = new ReachabilityIndex(new KosarajuSCC(graph).buildCondensation(), new CountingMetrics(), 0);
+        assertFalse(index.isDense());
+        assertMatchesTraversal(index);
+    }
+
+    @Test
+    public void testNoOpMetrics() {
+        KosarajuSCC.CondensationResult condensation = new KosarajuSCC(graph).buildCondensation();
+        assertMatchesTraversal(new ReachabilityIndex(condensation, NoOpMetrics.INSTANCE));
+        assertMatchesTraversal(new ReachabilityIndex(condensation, NoOpMetrics.INSTANCE, 0));
+    }
+
+    @Test
+    public void testSameComponent() {
+        Graph cycle = new Graph(4);
+        cycle.addEdge(0, 1, 1);
+        cycle.addEdge(1, 2, 1);
+        cycle.addEdge(2, 0, 1);
+        cycle.addEdge(2, 3, 1);
+        ReachabilityIndex index = new ReachabilityIndex(new KosarajuSCC(cycle).buildCondensation());
+
+        assertTrue(index.reaches(2, 1));
+        assertTrue(index.reaches(0, 3));
+        assertFalse(index.reaches(3, 0));
+        assertEquals(2, index.getComponentCount());
+        assertTrue(index.getSizeBytes() > 0);
+    }
+
+    private void assertMatchesTraversal(ReachabilityIndex index) {
+        int n = graph.getN();
+        for (int u = 0; u < n; u++) {
+            boolean[] seen = new boolean[n];
+            Deque<Integer> stack = new ArrayDeque<>();
+            stack.push(u);
+            seen[u] = true;
+            while (!stack.isEmpty()) {
+                int v = stack.pop();
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                    int w = graph.edgeTarget(e);
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        stack.push(w);
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                assertEquals(u + " -> " + v, seen[v], index.reaches(u, v));
+            }
+        }
+    }
+}
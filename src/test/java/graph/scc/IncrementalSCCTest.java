@@ -0,0 +1,173 @@
+package graph.scc;
+
+import graph.Graph;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for IncrementalSCC.
+ */
+public class IncrementalSCCTest {
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        // Chain of singletons 0 -> 1 -> 2 -> 3 -> 4, plus the cycle {5, 6}
+        graph = new Graph(7);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(5, 6, 1);
+        graph.addEdge(6, 5, 1);
+        graph.addEdge(4, 5, 1);
+    }
+
+    @Test
+    public void testMergeAndSplit() {
+        IncrementalSCC scc = new IncrementalSCC(graph);
+        assertEquals(6, scc.getComponentCount());
+
+        // Closing 3 -> 1 merges {1, 2, 3}
+        scc.addEdge(3, 1, 1);
+        assertEquals(4, scc.getComponentCount());
+        assertTrue(scc.isSameComponent(1, 3));
+        assertFalse(scc.isSameComponent(0, 1));
+        assertEquals(3, scc.getCondensationEdgeCount());  // 0 -> {1,2,3} -> 4 -> {5,6}
+
+        // Removing a redundant internal edge re-checks the component but keeps it intact
+        scc.addEdge(1, 3, 1);
+        assertTrue(scc.removeEdge(1, 3));
+        assertEquals(4, scc.getComponentCount());
+        assertTrue(scc.isSameComponent(1, 2));
+
+        // Removing 3 -> 1 breaks the cycle: 1, 2 and 3 become singletons again
+        assertTrue(scc.removeEdge(3, 1));
+        assertEquals(6, scc.getComponentCount());
+        assertFalse(scc.isSameComponent(1, 3));
+        assertFalse(scc.removeEdge(3, 1));
+
+        SCCResult result = scc.findComponents();
+        assertTopological(scc.toGraph(), result);
+    }
+
+    @Test
+    public void testCondensationMatchesStaticBuild() {
+        IncrementalSCC scc = new IncrementalSCC(graph);
+        scc.addEdge(4, 0, 1);  // merges 0..4
+        scc.addEdge(0, 6, 2);
+        scc.addEdge(2, 5, 3);
+
+        KosarajuSCC.CondensationResult dynamic = scc.buildCondensation(WeightAggregation.MIN);
+        KosarajuSCC.CondensationResult fresh = new KosarajuSCC(scc.toGraph()).buildCondensation(WeightAggregation.MIN);
+        assertEquals(fresh.condensationGraph.getN(), dynamic.condensationGraph.getN());
+        assertEquals(fresh.condensationGraph.getM(), dynamic.condensationGraph.getM());
+        assertEquals(1, dynamic.condensationGraph.getM());
+        assertEquals(1, dynamic.condensationGraph.edgeWeight(0));
+    }
+
+    @Test
+    public void testRandomUpdatesMatchRecomputation() {
+        Random random = new Random(5);
+        int n = 60;
+        Graph g = new Graph(n);
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            g.addEdge(u, v, 1);
+            edges.add(new int[]{u, v});
+        }
+        IncrementalSCC scc = new IncrementalSCC(g);
+
+        for (int step = 0; step < 400; step++) {
+            if (!edges.isEmpty() && random.nextInt(5) < 2) {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                assertTrue(scc.removeEdge(edge[0], edge[1]));
+            } else {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                scc.addEdge(u, v, 1);
+                edges.add(new int[]{u, v});
+            }
+
+            Graph current = scc.toGraph();
+            assertEquals(edges.size(), current.getM());
+            SCCResult expected = new TarjanSCC(current).findComponents();
+            assertEquals(expected.getComponentCount(), scc.getComponentCount());
+            for (int u = 0; u < n; u++) {
+                for (int v = u + 1; v < n; v++) {
+                    assertEquals(expected.getComponentId(u) == expected.getComponentId(v), scc.isSameComponent(u, v));
+                }
+            }
+            assertEquals(new KosarajuSCC(current).buildCondensation().condensationGraph.getM(),
+                    scc.getCondensationEdgeCount());
+            assertTopological(current, scc.findComponents());
+        }
+    }
+
+    @Test
+    public void testCondensationWeightsUnderUpdates() {
+        Random random = new Random(9);
+        int n = 40;
+        Graph g = new Graph(n);
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            int w = random.nextInt(20) - 5;
+            g.addEdge(u, v, w);
+            edges.add(new int[]{u, v});
+        }
+        int[] durations = new int[n];
+        for (int v = 0; v < n; v++) {
+            durations[v] = 1 + random.nextInt(9);
+        }
+        g.setNodeWeights(durations);
+        IncrementalSCC scc = new IncrementalSCC(g);
+
+        for (int step = 0; step < 300; step++) {
+            if (!edges.isEmpty() && random.nextInt(5) < 2) {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                assertTrue(scc.removeEdge(edge[0], edge[1]));
+            } else {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                scc.addEdge(u, v, random.nextInt(20) - 5);
+                edges.add(new int[]{u, v});
+            }
+
+            for (WeightAggregation policy : WeightAggregation.values()) {
+                KosarajuSCC.CondensationResult expected =
+                        Condensation.build(scc.toGraph(), scc.findComponents(), policy);
+                KosarajuSCC.CondensationResult actual = scc.buildCondensation(policy);
+                assertArrayEquals(expected.vertexToComponent, actual.vertexToComponent);
+                assertEquals(policy + " at step " + step, edgeWeights(expected.condensationGraph), edgeWeights(actual.condensationGraph));
+                for (int c = 0; c < expected.condensationGraph.getN(); c++) {
+                    assertEquals(expected.condensationGraph.getNodeWeight(c), actual.condensationGraph.getNodeWeight(c));
+                }
+            }
+        }
+    }
+
+    private static Map<List<Integer>, Integer> edgeWeights(Graph g) {
+        Map<List<Integer>, Integer> weights = new HashMap<>();
+        for (int u = 0; u < g.getN(); u++) {
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                assertNull(weights.put(Arrays.asList(u, g.edgeTarget(e)), g.edgeWeight(e)));
+            }
+        }
+        return weights;
+    }
+
+    private static void assertTopological(Graph g, SCCResult result) {
+        for (int u = 0; u < g.getN(); u++) {
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                assertTrue(result.getComponentId(u) <= result.getComponentId(g.edgeTarget(e)));
+            }
+        }
+    }
+}
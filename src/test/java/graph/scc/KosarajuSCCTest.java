@@ -1,11 +1,13 @@
 package graph.scc;
 
 import graph.Graph;
+import graph.NoOpMetrics;
 import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
 
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 /**
  * Unit tests for KosarajuSCC algorithm.
@@ -62,6 +64,33 @@ public class KosarajuSCCTest {
         assertEquals(comp1, comp2);
     }
 
+    @Test
+    public void testFindComponents() {
+        KosarajuSCC scc = new KosarajuSCC(graph);
+        SCCResult result = scc.findComponents();
+
+        assertEquals(3, result.getComponentCount());
+        int total = 0;
+        for (int c = 0; c < result.getComponentCount(); c++) {
+            PrimitiveIterator.OfInt it = result.members(c);
+            int size = 0;
+            while (it.hasNext()) {
+                assertEquals(c, result.getComponentId(it.nextInt()));
+                size++;
+            }
+            assertEquals(result.componentSize(c), size);
+            assertEquals(size, result.componentAsList(c).size());
+            total += size;
+        }
+        assertEquals(graph.getN(), total);
+        assertEquals(result.asLists(), scc.findSCCs());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testComponentViewsAreReadOnly() {
+        new KosarajuSCC(graph).findSCCs().get(0).add(42);
+    }
+
     @Test
     public void testCondensationGraph() {
         KosarajuSCC scc = new KosarajuSCC(graph);
@@ -71,4 +100,93 @@ public class KosarajuSCCTest {
         // Condensation should have 3 vertices (one per SCC)
         assertEquals(3, result.condensationGraph.getN());
     }
+
+    @Test
+    public void testCondensationDoesNotShareComponentIds() {
+        KosarajuSCC scc = new KosarajuSCC(graph);
+        SCCResult components = scc.findComponents();
+        int before = components.getComponentId(0);
+        KosarajuSCC.CondensationResult result = scc.buildCondensation();
+
+        result.vertexToComponent[0] = before + 1;
+        assertEquals(before, components.getComponentId(0));
+        assertEquals(before, scc.getComponentId(0));
+    }
+
+    @Test
+    public void testCondensationWeightAggregation() {
+        // Extra parallel edges between component {0,1,2} and component {3,4}
+        graph.addEdge(0, 4, 7);
+        graph.addEdge(1, 3, 1);
+        KosarajuSCC scc = new KosarajuSCC(graph);
+        int from = scc.getComponentId(0);
+        int to = scc.getComponentId(3);
+
+        assertEquals(7, condensationWeight(scc.buildCondensation(WeightAggregation.FIRST), from, to));
+        assertEquals(1, condensationWeight(scc.buildCondensation(WeightAggregation.MIN), from, to));
+        assertEquals(7, condensationWeight(scc.buildCondensation(WeightAggregation.MAX), from, to));
+        assertEquals(10, condensationWeight(scc.buildCondensation(WeightAggregation.SUM), from, to));
+        // Parallel edges collapse into one condensation edge
+        assertEquals(2, scc.buildCondensation().condensationGraph.getM());
+    }
+
+    private static int condensationWeight(KosarajuSCC.CondensationResult result, int from, int to) {
+        for (Graph.Edge e : result.condensationGraph.getAdjacent(from)) {
+            if (e.to == to) {
+                return e.weight;
+            }
+        }
+        throw new AssertionError("No condensation edge " + from + "->" + to);
+    }
+
+    @Test
+    public void testDeepCycle() {
+        // One cycle through 1M vertices would overflow the thread stack with a recursive DFS
+        int n = 1_000_000;
+        Graph.Builder builder = new Graph.Builder(n, n);
+        for (int i = 0; i < n; i++) {
+            builder.addEdge(i, (i + 1) % n, 1);
+        }
+
+        KosarajuSCC scc = new KosarajuSCC(builder.build());
+
+        assertEquals(1, scc.findSCCs().size());
+        assertEquals(1, scc.getComponentCount());
+    }
+
+    @Test
+    public void testCondensationSumsNodeWeights() {
+        graph.setNodeWeights(new int[]{1, 2, 3, 4, 5, 6});
+        KosarajuSCC scc = new KosarajuSCC(graph);
+        Graph dag = scc.buildCondensation().condensationGraph;
+
+        assertTrue(dag.hasNodeWeights());
+        assertEquals(6, dag.getNodeWeight(scc.getComponentId(0)));
+        assertEquals(9, dag.getNodeWeight(scc.getComponentId(3)));
+        assertEquals(6, dag.getNodeWeight(scc.getComponentId(5)));
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        assertTrue(graph.removeEdge(2, 0));
+        assertFalse(graph.removeEdge(2, 0));
+        assertEquals(6, graph.getM());
+        assertEquals(5, new KosarajuSCC(graph).getComponentCount());
+    }
+
+    @Test
+    public void testNoOpMetrics() {
+        KosarajuSCC counted = new KosarajuSCC(graph);
+        KosarajuSCC uncounted = new KosarajuSCC(graph, NoOpMetrics.INSTANCE);
+        SCCResult expected = counted.findComponents();
+        SCCResult actual = uncounted.findComponents();
+
+        assertEquals(expected.getComponentCount(), actual.getComponentCount());
+        for (int v = 0; v < graph.getN(); v++) {
+            assertEquals(expected.getComponentId(v), actual.getComponentId(v));
+        }
+        assertTrue(counted.getMetrics().getDfsVisits() > 0);
+        assertEquals(0, uncounted.getMetrics().getDfsVisits());
+        assertEquals(0, uncounted.getMetrics().getTimeNanos());
+    }
 }
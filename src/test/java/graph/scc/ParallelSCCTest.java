@@ -0,0 +1,196 @@
+package graph.scc;
+
+import graph.Graph;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for ParallelSCC algorithm, validated against KosarajuSCC.
+ */
+public class ParallelSCCTest {
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        // Same graph as KosarajuSCCTest: SCCs {0,1,2}, {3,4}, {5}
+        graph = new Graph(6);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 3, 1);
+        graph.addEdge(2, 3, 2);
+        graph.addEdge(4, 5, 3);
+    }
+
+    @Test
+    public void testFindSCCs() {
+        ParallelSCC scc = new ParallelSCC(graph);
+        List<List<Integer>> components = scc.findSCCs();
+
+        assertEquals(3, components.size());
+        assertEquals(scc.getComponentId(0), scc.getComponentId(2));
+        assertEquals(scc.getComponentId(3), scc.getComponentId(4));
+        assertTrue(scc.getComponentId(0) < scc.getComponentId(3));
+        assertTrue(scc.getComponentId(3) < scc.getComponentId(5));
+    }
+
+    @Test
+    public void testMatchesKosarajuOnRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(7);
+            for (int trial = 0; trial < 40; trial++) {
+                int n = 1 + random.nextInt(trial < 30 ? 80 : 20_000);
+                Graph g = randomGraph(random, n);
+                assertSamePartition(g, new ParallelSCC(g, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testManySmallCycles() {
+        // 10,000 disjoint 3-cycles chained together: nothing is trimmed, FW-BW does all the work
+        int cycles = 10_000;
+        Graph.Builder builder = new Graph.Builder(3 * cycles);
+        for (int c = 0; c < cycles; c++) {
+            int base = 3 * c;
+            builder.addEdge(base, base + 1, 1);
+            builder.addEdge(base + 1, base + 2, 1);
+            builder.addEdge(base + 2, base, 1);
+            if (c + 1 < cycles) {
+                builder.addEdge(base + 2, base + 3, 1);
+            }
+        }
+        Graph g = builder.build();
+
+        ParallelSCC scc = new ParallelSCC(g, new ForkJoinPool(4));
+        assertEquals(cycles, scc.getComponentCount());
+        assertSamePartition(g, scc);
+    }
+
+    @Test
+    public void testWideDagIsTrimmed() {
+        // 64 layers of 1,000 vertices: every vertex is a trivial SCC, removed by parallel trimming
+        int width = 1_000;
+        int layers = 64;
+        Random random = new Random(11);
+        Graph.Builder builder = new Graph.Builder(width * layers);
+        for (int layer = 0; layer + 1 < layers; layer++) {
+            for (int i = 0; i < width; i++) {
+                for (int j = 0; j < 3; j++) {
+                    builder.addEdge(layer * width + i, (layer + 1) * width + random.nextInt(width), 1);
+                }
+            }
+        }
+        Graph g = builder.build();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelSCC scc = new ParallelSCC(g, pool);
+            assertEquals(width * layers, scc.getComponentCount());
+            assertSamePartition(g, scc);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLargeSccAmongManySmallOnes() {
+        // A 5,000-vertex cycle with chains of 2-cycles entering and leaving it: after the pivot
+        // finds the cycle, the remaining parts hold only small SCCs
+        int ring = 5_000;
+        int pairs = 20_000;
+        Graph.Builder builder = new Graph.Builder(ring + 2 * pairs);
+        for (int v = 0; v < ring; v++) {
+            builder.addEdge(v, (v + 1) % ring, 1);
+        }
+        Random random = new Random(5);
+        for (int p = 0; p < pairs; p++) {
+            int a = ring + 2 * p;
+            builder.addEdge(a, a + 1, 1);
+            builder.addEdge(a + 1, a, 1);
+            int other = p > 0 ? ring + 2 * random.nextInt(p) : random.nextInt(ring);
+            if (p % 2 == 0) {
+                builder.addEdge(other, a, 1);
+            } else {
+                builder.addEdge(a, other, 1);
+            }
+        }
+        Graph g = builder.build();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelSCC scc = new ParallelSCC(g, pool);
+            assertEquals(1 + pairs, scc.getComponentCount());
+            assertSamePartition(g, scc);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testResultIndependentOfScheduling() {
+        Graph g = randomGraph(new Random(3), 30_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            SCCResult first = new ParallelSCC(g, pool).findComponents();
+            SCCResult second = new ParallelSCC(g, single).findComponents();
+            assertArrayEquals(first.copyComponentIds(), second.copyComponentIds());
+            for (int c = 0; c < first.getComponentCount(); c++) {
+                assertArrayEquals(first.copyMembers(c), second.copyMembers(c));
+            }
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+    }
+
+    private static Graph randomGraph(Random random, int n) {
+        Graph g = new Graph(n);
+        int m = random.nextInt(2 * n + 1);
+        for (int i = 0; i < m; i++) {
+            // Mostly local edges give many small SCCs
+            int u = random.nextInt(n);
+            int v = random.nextBoolean() ? Math.min(n - 1, Math.max(0, u + random.nextInt(7) - 3)) : random.nextInt(n);
+            g.addEdge(u, v, 1);
+        }
+        return g;
+    }
+
+    private static void assertSamePartition(Graph g, SCCAlgorithm parallel) {
+        KosarajuSCC sequential = new KosarajuSCC(g);
+        assertEquals(sequential.getComponentCount(), parallel.getComponentCount());
+
+        // Same partition: the mapping between component IDs is a bijection
+        int count = sequential.getComponentCount();
+        int[] mapping = new int[count];
+        java.util.Arrays.fill(mapping, -1);
+        for (int v = 0; v < g.getN(); v++) {
+            int s = sequential.getComponentId(v);
+            int p = parallel.getComponentId(v);
+            if (mapping[s] == -1) {
+                mapping[s] = p;
+            }
+            assertEquals(mapping[s], p);
+        }
+        // Topological numbering of components
+        for (Graph.EdgeData e : g.getAllEdges()) {
+            assertTrue(parallel.getComponentId(e.u) <= parallel.getComponentId(e.v));
+        }
+        List<List<Integer>> components = parallel.findSCCs();
+        for (int c = 0; c < components.size(); c++) {
+            for (int v : components.get(c)) {
+                assertEquals(c, parallel.getComponentId(v));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package graph.scc;
+
+import graph.Graph;
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for TarjanSCC algorithm.
+ */
+public class TarjanSCCTest {
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        // Same graph as KosarajuSCCTest: SCCs {0,1,2}, {3,4}, {5}
+        graph = new Graph(6);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 3, 1);
+        graph.addEdge(2, 3, 2);
+        graph.addEdge(4, 5, 3);
+    }
+
+    @Test
+    public void testFindSCCs() {
+        TarjanSCC scc = new TarjanSCC(graph);
+        List<List<Integer>> components = scc.findSCCs();
+
+        assertEquals(3, components.size());
+        assertEquals(scc.getComponentId(0), scc.getComponentId(1));
+        assertEquals(scc.getComponentId(1), scc.getComponentId(2));
+        assertEquals(scc.getComponentId(3), scc.getComponentId(4));
+        assertNotEquals(scc.getComponentId(0), scc.getComponentId(3));
+        assertNotEquals(scc.getComponentId(3), scc.getComponentId(5));
+    }
+
+    @Test
+    public void testComponentIdsFollowTopologicalOrder() {
+        TarjanSCC scc = new TarjanSCC(graph);
+        scc.findSCCs();
+
+        // {0,1,2} -> {3,4} -> {5}
+        assertTrue(scc.getComponentId(0) < scc.getComponentId(3));
+        assertTrue(scc.getComponentId(3) < scc.getComponentId(5));
+    }
+
+    @Test
+    public void testMatchesKosarajuOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 50; trial++) {
+            int n = 1 + random.nextInt(60);
+            Graph g = new Graph(n);
+            int m = random.nextInt(3 * n);
+            for (int i = 0; i < m; i++) {
+                g.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+            }
+
+            KosarajuSCC kosaraju = new KosarajuSCC(g);
+            TarjanSCC tarjan = new TarjanSCC(g);
+            kosaraju.findSCCs();
+            tarjan.findSCCs();
+
+            assertEquals(kosaraju.getComponentCount(), tarjan.getComponentCount());
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    assertEquals(kosaraju.getComponentId(u) == kosaraju.getComponentId(v),
+                                 tarjan.getComponentId(u) == tarjan.getComponentId(v));
+                }
+                for (Graph.Edge e : g.getAdjacent(u)) {
+                    assertTrue(tarjan.getComponentId(u) <= tarjan.getComponentId(e.to));
+                }
+            }
+            // Tarjan touches each vertex and edge once, Kosaraju twice
+            assertEquals(n, tarjan.getMetrics().getDfsVisits());
+            assertEquals(g.getM(), tarjan.getMetrics().getEdgesTraversed());
+        }
+    }
+
+    @Test
+    public void testCondensationGraph() {
+        TarjanSCC scc = new TarjanSCC(graph);
+        KosarajuSCC.CondensationResult result = scc.buildCondensation();
+
+        assertEquals(3, result.condensationGraph.getN());
+        assertEquals(2, result.condensationGraph.getM());
+    }
+}
@@ -0,0 +1,149 @@
+package graph.topo;
+
+import graph.BinaryGraphFormat;
+import graph.Graph;
+import graph.MappedGraph;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for DynamicTopologicalOrder.
+ */
+public class DynamicTopologicalOrderTest {
+    private Graph dag;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        // Two chains: 0 -> 1 -> 2 and 3 -> 4 -> 5
+        dag = new Graph(6);
+        dag.addEdge(0, 1, 1);
+        dag.addEdge(1, 2, 1);
+        dag.addEdge(3, 4, 1);
+        dag.addEdge(4, 5, 1);
+    }
+
+    @Test
+    public void testInsertReordersWindow() {
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(dag);
+        // Kahn places 0 and 3 first, so 5 -> 1 contradicts the initial order
+        assertTrue(topo.getPosition(5) > topo.getPosition(1));
+
+        topo.addEdge(5, 1, 2);
+        assertTopological(dag, topo);
+        assertTrue(topo.getPosition(5) < topo.getPosition(1));
+        assertTrue(topo.getMetrics().getDfsVisits() > 0);
+        assertEquals(5, dag.getM());
+
+        // Already consistent: no search at all
+        topo.addEdge(0, 2, 1);
+        assertEquals(0, topo.getMetrics().getDfsVisits());
+        assertTopological(dag, topo);
+    }
+
+    @Test
+    public void testCycleRejected() {
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(dag);
+        List<Integer> before = topo.getOrder();
+
+        try {
+            topo.addEdge(2, 0, 1);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            topo.addEdge(4, 4, 1);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(before, topo.getOrder());
+        assertEquals(4, dag.getM());
+    }
+
+    @Test
+    public void testRandomInsertsMatchKahn() {
+        Random random = new Random(11);
+        int n = 60;
+        Graph graph = new Graph(n);
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(graph);
+
+        for (int step = 0; step < 500; step++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            boolean cyclic;
+            Graph probe = copyWithEdge(graph, u, v);
+            try {
+                new TopologicalSort(probe).kahn();
+                cyclic = false;
+            } catch (IllegalStateException e) {
+                cyclic = true;
+            }
+
+            try {
+                topo.addEdge(u, v, 1);
+                assertFalse("missed cycle at step " + step, cyclic);
+            } catch (IllegalStateException e) {
+                assertTrue("false cycle at step " + step, cyclic);
+            }
+            assertTopological(graph, topo);
+        }
+    }
+
+    @Test
+    public void testRejectedByGraphLeavesOrderUnchanged() throws IOException {
+        String bin = folder.newFile().getPath();
+        BinaryGraphFormat.write(dag, 0, "edge", bin);
+        MappedGraph mapped = BinaryGraphFormat.load(bin);
+        DynamicTopologicalOrder topo = new DynamicTopologicalOrder(mapped);
+        List<Integer> before = topo.getOrder();
+
+        try {
+            topo.addEdge(5, 1, 2);
+            fail("Expected UnsupportedOperationException for a read-only graph");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(before, topo.getOrder());
+        // The rejected 5 -> 1 must not make 1 -> 5 look like a cycle
+        try {
+            topo.addEdge(1, 5, 1);
+            fail("Expected UnsupportedOperationException for a read-only graph");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(before, topo.getOrder());
+    }
+
+    private static Graph copyWithEdge(Graph graph, int u, int v) {
+        Graph copy = new Graph(graph.getN());
+        for (int x = 0; x < graph.getN(); x++) {
+            for (int e = graph.edgeStart(x); e < graph.edgeEnd(x); e++) {
+                copy.addEdge(x, graph.edgeTarget(e), graph.edgeWeight(e));
+            }
+        }
+        copy.addEdge(u, v, 1);
+        return copy;
+    }
+
+    private static void assertTopological(Graph graph, DynamicTopologicalOrder topo) {
+        for (int p = 0; p < graph.getN(); p++) {
+            assertEquals(p, topo.getPosition(topo.getVertex(p)));
+        }
+        for (int u = 0; u < graph.getN(); u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                assertTrue(topo.getPosition(u) < topo.getPosition(graph.edgeTarget(e)));
+            }
+        }
+    }
+}
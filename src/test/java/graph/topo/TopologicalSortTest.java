@@ -1,11 +1,14 @@
 package graph.topo;
 
 import graph.Graph;
+import graph.TraversalWorkspace;
 import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
 
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Unit tests for TopologicalSort algorithm.
@@ -53,6 +56,81 @@ public class TopologicalSortTest {
         assertTrue(pos3 < pos4);
     }
 
+    @Test
+    public void testKahnWorkspace() {
+        TopologicalSort topo = new TopologicalSort(dag);
+        TraversalWorkspace workspace = new TraversalWorkspace(dag.getN());
+        List<Integer> expected = topo.kahn();
+
+        for (int run = 0; run < 3; run++) {
+            topo.kahn(workspace);
+            assertEquals(expected.size(), workspace.getOrderSize());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals((int) expected.get(i), workspace.getOrder(i));
+            }
+        }
+    }
+
+    @Test
+    public void testKahnLevels() {
+        TopologicalSort.LevelResult result = new TopologicalSort(dag).kahnLevels();
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, result.order);
+        assertArrayEquals(new int[] {0, 1, 1, 2, 3}, result.level);
+        assertEquals(4, result.levelCount);
+        assertArrayEquals(new int[] {0, 1, 3, 4, 5}, result.levelOffsets);
+    }
+
+    @Test
+    public void testKahnLevelsParallelWideDag() {
+        // Layered random DAG with frontiers large enough to be processed in parallel
+        int layers = 20, width = 10_000, n = layers * width;
+        Random random = new Random(3);
+        Graph.Builder builder = new Graph.Builder(n);
+        for (int v = width; v < n; v++) {
+            for (int k = 0; k < 3; k++) {
+                builder.addEdge(random.nextInt(v - v % width), v, 1);
+            }
+        }
+        Graph wide = builder.build();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TopologicalSort.LevelResult result;
+        try {
+            result = new TopologicalSort(wide).kahnLevels(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Level is the longest edge path ending at each vertex
+        int[] expected = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (Graph.Edge e : wide.getAdjacent(u)) {
+                expected[e.to] = Math.max(expected[e.to], expected[u] + 1);
+            }
+        }
+        assertArrayEquals(expected, result.level);
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[result.order[i]] = i;
+        }
+        for (int u = 0; u < n; u++) {
+            for (Graph.Edge e : wide.getAdjacent(u)) {
+                assertTrue(position[u] < position[e.to]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testKahnLevelsCycleDetection() {
+        Graph cyclic = new Graph(3);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 2, 1);
+        cyclic.addEdge(2, 0, 1);
+
+        new TopologicalSort(cyclic).kahnLevels();
+    }
+
     @Test
     public void testDfsTopo() {
         TopologicalSort topo = new TopologicalSort(dag);
@@ -76,4 +154,31 @@ public class TopologicalSortTest {
         TopologicalSort topo = new TopologicalSort(cyclic);
         topo.kahn(); // Should throw exception
     }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDfsTopoCycleDetection() {
+        Graph cyclic = new Graph(3);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 2, 1);
+        cyclic.addEdge(2, 0, 1);
+
+        new TopologicalSort(cyclic).dfsTopo();
+    }
+
+    @Test
+    public void testDfsTopoDeepChain() {
+        // Deep enough to overflow the default thread stack with a recursive DFS
+        int n = 1_000_000;
+        Graph.Builder builder = new Graph.Builder(n, n - 1);
+        for (int i = 0; i < n - 1; i++) {
+            builder.addEdge(i, i + 1, 1);
+        }
+
+        List<Integer> order = new TopologicalSort(builder.build()).dfsTopo();
+
+        assertEquals(n, order.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
 }